@@ -1,9 +1,14 @@
 package anc;
 
+import anc.algorithms.AssociationGraphClique;
+import anc.algorithms.DownSearch;
 import anc.algorithms.Genetic;
+import anc.algorithms.Hybrid;
 import anc.algorithms.MaximumCommonSubgraphAlgorithm;
 import anc.algorithms.McSplit;
 import anc.algorithms.MinimumCommonSupergraphAlgorithm;
+import anc.algorithms.Portfolio;
+import anc.algorithms.VertexOrderingAlgorithm;
 import anc.models.AlgorithmType;
 import anc.models.Configuration;
 import anc.models.Graph;
@@ -39,10 +44,24 @@ public class App {
 
             MaximumCommonSubgraphAlgorithm maximumCommonSubgraphAlgorithm;
             if (configuration.algorithmType == AlgorithmType.MC_SPLIT) {
-                maximumCommonSubgraphAlgorithm = new McSplit();
-            } else { // configuration.algorithmType == AlgorithmType.GENETIC
+                maximumCommonSubgraphAlgorithm = McSplit.fromConfiguration(configuration.mcSplitConfiguration);
+            } else if (configuration.algorithmType == AlgorithmType.GENETIC) {
                 maximumCommonSubgraphAlgorithm = Genetic.fromConfiguration(configuration.geneticConfiguration);
+            } else if (configuration.algorithmType == AlgorithmType.HYBRID) {
+                maximumCommonSubgraphAlgorithm = new Hybrid(
+                        Genetic.fromConfiguration(configuration.geneticConfiguration),
+                        McSplit.fromConfiguration(configuration.mcSplitConfiguration));
+            } else if (configuration.algorithmType == AlgorithmType.DOWN_SEARCH) {
+                maximumCommonSubgraphAlgorithm = DownSearch.fromConfiguration(configuration.mcSplitConfiguration);
+            } else if (configuration.algorithmType == AlgorithmType.CLIQUE) {
+                maximumCommonSubgraphAlgorithm = AssociationGraphClique
+                        .fromConfiguration(configuration.mcSplitConfiguration);
+            } else { // configuration.algorithmType == AlgorithmType.PORTFOLIO
+                maximumCommonSubgraphAlgorithm = Portfolio.fromConfiguration(configuration.geneticConfiguration,
+                        configuration.mcSplitConfiguration);
             }
+            maximumCommonSubgraphAlgorithm = new VertexOrderingAlgorithm(maximumCommonSubgraphAlgorithm,
+                    configuration.vertexOrdering);
 
             if (configuration.problemType == ProblemType.MAXIMUM_COMMON_SUBGRAPH) {
                 MaximumCommonSubgraph maximumCommonSubgraph = maximumCommonSubgraphAlgorithm.compute(g1, g2);
@@ -13,6 +13,7 @@ public class Display {
     public static void displayMaximumCommonSubgraph(Graph g1, Graph g2, MaximumCommonSubgraph mcs,
             boolean areGraphsSwapped) {
         System.out.println("Number of vertices in maximum common subgraph: " + mcs.M.size());
+        displayOptimality(mcs);
         System.out.println("");
 
         System.out.println("Adjacency list of the maximum common subgraph: ");
@@ -31,6 +32,7 @@ public class Display {
     public static void displayMinimumCommonSupergraph(Graph g1, Graph g2, MinimumCommonSupergraph mcs,
             boolean areGraphsSwapped) {
         System.out.println("Number of vertices in minimum common supergraph: " + mcs.adjacencyMatrix.length);
+        displayOptimality(mcs.mcs);
         System.out.println("");
 
         System.out.println("Adjacency list of the minimum common supergraph: ");
@@ -46,6 +48,13 @@ public class Display {
         }
     }
 
+    private static void displayOptimality(MaximumCommonSubgraph mcs) {
+        if (!mcs.fromGenetic() && !mcs.isOptimal()) {
+            System.out.println("Search ran out of budget, maximum common subgraph has at most " + mcs.upperBound
+                    + " vertices");
+        }
+    }
+
     private static void displayAdjacencyList(int[][] adjacencyMatrix) {
         final int n = adjacencyMatrix.length;
         for (int i = 0; i < n; i++) {
@@ -0,0 +1,307 @@
+package anc.algorithms;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+
+/**
+ * Solves maximum common subgraph as maximum clique of the association graph,
+ * whose vertices are pairs (v, w) of vertices of the same label and where two
+ * pairs are adjacent iff they match distinct vertices joined by edges of the
+ * same label or adjacent in neither graph. Cliques are exactly the induced
+ * common subgraphs, and the clique is found by bit-parallel branch and bound
+ * pruned by greedy colouring (BBMC), which for small, dense or heavily
+ * labelled pairs of graphs is often faster than McSplit. Only the time and
+ * node limits of configuration are used.
+ *
+ * The association graph takes memory quadratic in the number of pairs, so
+ * pairs of graphs with more than {@link #MAX_PAIRS} pairs are not searched
+ * and only the trivial bound is returned for them.
+ */
+public class AssociationGraphClique implements ExactAlgorithm {
+    /** At most this many pairs, the rows of the association graph take 32 MB */
+    static final int MAX_PAIRS = 1 << 14;
+
+    private final McSplitConfiguration configuration;
+
+    public AssociationGraphClique() {
+        this(McSplitConfiguration.defaults());
+    }
+
+    public AssociationGraphClique(McSplitConfiguration configuration) {
+        if (configuration.connected) {
+            throw new RuntimeException("Association graph clique does not support connected common subgraphs!");
+        }
+
+        this.configuration = configuration;
+    }
+
+    public static AssociationGraphClique fromConfiguration(McSplitConfiguration conf) {
+        return new AssociationGraphClique(conf);
+    }
+
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
+        final Incumbent incumbent = new Incumbent(0, Math.min(g1.n, g2.n));
+        final int upperBound = search(g1, g2, incumbent, newBudget());
+        return new MaximumCommonSubgraph(incumbent.pairs(), g1, g2, upperBound);
+    }
+
+    @Override
+    public Budget newBudget() {
+        return new Budget(configuration.timeLimitMillis, configuration.nodeLimit);
+    }
+
+    /** Returns the trivial bound if there are too many pairs or budget runs out while building */
+    @Override
+    public int search(Graph g1, Graph g2, Incumbent incumbent, Budget budget) {
+        final int maxSize = Math.min(g1.n, g2.n);
+        final AssociationGraph graph = AssociationGraph.pairsOf(g1, g2) <= MAX_PAIRS
+                ? AssociationGraph.of(g1, g2, budget)
+                : null;
+        if (graph == null) {
+            return Math.max(incumbent.size(), maxSize);
+        }
+        final CliqueSearch search = new CliqueSearch(graph, maxSize, incumbent, budget);
+        search.search(0, search.allVertices());
+        // Colours may outnumber vertices of the smaller graph
+        return Math.max(incumbent.size(), Math.min(maxSize, budget.remainingBound()));
+    }
+
+    /**
+     * Association graph of g1 and g2 with rows of bits, vertices are numbered by
+     * descending degree, so greedy colouring takes the most constrained pairs
+     * first
+     */
+    static class AssociationGraph {
+        /** Pair of vertex i */
+        public final int[] v1;
+        public final int[] v2;
+        public final long[][] neighbors;
+
+        private AssociationGraph(int[] v1, int[] v2, long[][] neighbors) {
+            this.v1 = v1;
+            this.v2 = v2;
+            this.neighbors = neighbors;
+        }
+
+        /** Number of pairs of vertices of the same label */
+        public static long pairsOf(Graph g1, Graph g2) {
+            long pairs = 0;
+            for (int v = 0; v < g1.n; v++) {
+                for (int w = 0; w < g2.n; w++) {
+                    if (g1.vertexLabels[v] == g2.vertexLabels[w]) {
+                        pairs++;
+                    }
+                }
+            }
+            return pairs;
+        }
+
+        /**
+         * Every edge is computed once into rows in the order of pairs, which are
+         * then renumbered by degree. Budget is polled after every row, returns null
+         * if it runs out.
+         */
+        public static AssociationGraph of(Graph g1, Graph g2, Budget budget) {
+            final int n = (int) pairsOf(g1, g2);
+            final int[] pairs1 = new int[n];
+            final int[] pairs2 = new int[n];
+            int pair = 0;
+            for (int v = 0; v < g1.n; v++) {
+                for (int w = 0; w < g2.n; w++) {
+                    if (g1.vertexLabels[v] == g2.vertexLabels[w]) {
+                        pairs1[pair] = v;
+                        pairs2[pair] = w;
+                        pair++;
+                    }
+                }
+            }
+
+            final long[][] rows = new long[n][Bitsets.words(n)];
+            for (int i = 0; i < n; i++) {
+                final int v = pairs1[i];
+                final int w = pairs2[i];
+                for (int j = i + 1; j < n; j++) {
+                    final int otherV = pairs1[j];
+                    final int otherW = pairs2[j];
+                    if (v != otherV && w != otherW && g1.edgeLabels[v][otherV] == g2.edgeLabels[w][otherW]) {
+                        Bitsets.add(rows[i], j);
+                        Bitsets.add(rows[j], i);
+                    }
+                }
+                budget.report(0);
+                if (budget.isStopped()) {
+                    return null;
+                }
+            }
+            final int[] degrees = new int[n];
+            for (int i = 0; i < n; i++) {
+                degrees[i] = Bitsets.cardinality(rows[i]);
+            }
+            final int[] order = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingInt((Integer i) -> -degrees[i]).thenComparingInt(i -> i))
+                    .mapToInt(i -> i).toArray();
+            final int[] rank = new int[n];
+            for (int i = 0; i < n; i++) {
+                rank[order[i]] = i;
+            }
+
+            final int[] v1 = new int[n];
+            final int[] v2 = new int[n];
+            final long[][] neighbors = new long[n][];
+            for (int i = 0; i < n; i++) {
+                v1[i] = pairs1[order[i]];
+                v2[i] = pairs2[order[i]];
+                final long[] row = rows[order[i]];
+                // Every row is renumbered once, so it is dropped to keep only about one copy of the graph
+                rows[order[i]] = null;
+                neighbors[i] = new long[row.length];
+                for (int word = 0; word < row.length; word++) {
+                    for (long bits = row[word]; bits != 0; bits &= bits - 1) {
+                        Bitsets.add(neighbors[i], rank[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+                    }
+                }
+                budget.report(0);
+                if (budget.isStopped()) {
+                    return null;
+                }
+            }
+            return new AssociationGraph(v1, v2, neighbors);
+        }
+    }
+
+    /**
+     * Branch and bound over cliques. Every node colours its candidates
+     * greedily, one colour class at a time as a bitset, and branches on them by
+     * descending colour, so the clique plus the colour of a candidate bounds
+     * everything below it. Candidates coloured too low to beat the best clique
+     * are never branched on.
+     */
+    static class CliqueSearch {
+        private final AssociationGraph graph;
+        private final long[][] neighbors;
+        private final int n;
+        private final Incumbent incumbent;
+        private final Budget budget;
+        /** Current clique as mapping, pair i is (M1[i], M2[i]) */
+        private final int[] M1;
+        private final int[] M2;
+        /** Nodes expanded since the last report to budget */
+        private long nodes = 0;
+        private long nodesToReport;
+
+        // Scratch space indexed by depth
+        private final long[][] candidates;
+        private final long[][] uncoloured;
+        private final long[][] colourClass;
+        /** Candidates to branch on in the order of colouring and their colours */
+        private final int[][] order;
+        private final int[][] colours;
+
+        /** Cliques are never bigger than maxSize, the size of the smaller graph */
+        public CliqueSearch(AssociationGraph graph, int maxSize, Incumbent incumbent, Budget budget) {
+            this.graph = graph;
+            this.neighbors = graph.neighbors;
+            this.n = neighbors.length;
+            this.incumbent = incumbent;
+            this.budget = budget;
+            this.M1 = new int[maxSize];
+            this.M2 = new int[maxSize];
+            final int words = Bitsets.words(n);
+            this.candidates = new long[maxSize + 1][words];
+            this.uncoloured = new long[maxSize + 1][words];
+            this.colourClass = new long[maxSize + 1][words];
+            this.order = new int[maxSize + 1][n];
+            this.colours = new int[maxSize + 1][n];
+            this.nodesToReport = budget.report(0);
+        }
+
+        public long[] allVertices() {
+            final long[] all = new long[Bitsets.words(n)];
+            for (int i = 0; i < n; i++) {
+                Bitsets.add(all, i);
+            }
+            return all;
+        }
+
+        /** Extends clique of size depth by subsets of P, removing from P every vertex branched on */
+        public void search(int depth, long[] P) {
+            if (++nodes == nodesToReport) {
+                nodesToReport = budget.report(nodes);
+                nodes = 0;
+            }
+            final int count = colour(depth, P);
+            final int[] order = this.order[depth];
+            final int[] colours = this.colours[depth];
+            final long[] childP = candidates[depth + 1];
+            for (int i = count - 1; i >= 0; i--) {
+                if (depth + colours[i] <= incumbent.size() || incumbent.isTargetReached()) {
+                    return;
+                }
+                if (budget.isStopped()) {
+                    budget.reportBound(depth + colours[i]);
+                    return;
+                }
+                final int vertex = order[i];
+                M1[depth] = graph.v1[vertex];
+                M2[depth] = graph.v2[vertex];
+                boolean empty = true;
+                for (int word = 0; word < P.length; word++) {
+                    childP[word] = P[word] & neighbors[vertex][word];
+                    empty &= childP[word] == 0;
+                }
+                if (empty) {
+                    incumbent.offer(M1, M2, depth + 1);
+                } else {
+                    search(depth + 1, childP);
+                }
+                P[vertex >>> 6] &= ~(1L << vertex);
+            }
+        }
+
+        /**
+         * Colours P greedily and stores candidates of colours that can still beat
+         * the best clique by ascending colour, returns their number
+         */
+        private int colour(int depth, long[] P) {
+            final long[] U = uncoloured[depth];
+            final long[] Q = colourClass[depth];
+            System.arraycopy(P, 0, U, 0, P.length);
+            final int minColour = incumbent.size() - depth + 1;
+            int count = 0;
+            for (int colour = 1; !isEmpty(U); colour++) {
+                System.arraycopy(U, 0, Q, 0, U.length);
+                for (int word = 0; word < Q.length; word++) {
+                    while (Q[word] != 0) {
+                        final int vertex = (word << 6) + Long.numberOfTrailingZeros(Q[word]);
+                        U[word] &= ~(1L << vertex);
+                        Q[word] &= ~(1L << vertex);
+                        // Neighbors of vertex cannot share its colour
+                        for (int next = word; next < Q.length; next++) {
+                            Q[next] &= ~neighbors[vertex][next];
+                        }
+                        if (colour >= minColour) {
+                            order[depth][count] = vertex;
+                            colours[depth][count] = colour;
+                            count++;
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean isEmpty(long[] set) {
+            for (long word : set) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
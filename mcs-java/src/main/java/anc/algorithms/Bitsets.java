@@ -0,0 +1,59 @@
+package anc.algorithms;
+
+import java.util.Arrays;
+
+import anc.models.Graph;
+
+/** Sets of vertices stored as bits of long words, vertex i is bit i % 64 of word i / 64 */
+class Bitsets {
+
+    public static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    /** Row v is the set of neighbors of v */
+    public static long[][] adjacencyRows(Graph g) {
+        final long[][] rows = new long[g.n][words(g.n)];
+        for (int v = 0; v < g.n; v++) {
+            for (int w = 0; w < g.n; w++) {
+                if (g.M[v][w] == 1) {
+                    add(rows[v], w);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Rows of bits of g split by edge label, row [v][l] holds neighbors of v
+     * joined to it by an edge labelled labels[l]
+     */
+    public static long[][][] edgeLabelRows(Graph g, int[] labels) {
+        final long[][][] rows = new long[g.n][labels.length][words(g.n)];
+        for (int v = 0; v < g.n; v++) {
+            for (int w = 0; w < g.n; w++) {
+                final int label = Arrays.binarySearch(labels, g.edgeLabels[v][w]);
+                if (g.M[v][w] == 1 && label >= 0) {
+                    add(rows[v][label], w);
+                }
+            }
+        }
+        return rows;
+    }
+
+    public static boolean contains(long[] set, int i) {
+        return (set[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public static void add(long[] set, int i) {
+        set[i >>> 6] |= 1L << i;
+    }
+
+    public static int cardinality(long[] set) {
+        int cardinality = 0;
+        for (long word : set) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+}
@@ -0,0 +1,39 @@
+package anc.algorithms;
+
+import anc.algorithms.McSplit.LabelClasses;
+import anc.models.Branching;
+
+/**
+ * Chooses the vertex of g1 McSplit branches on within the selected label class,
+ * and the order in which vertices of g2 are matched with it. Every search owns
+ * its strategy, so strategies may keep state without synchronization.
+ */
+interface BranchingStrategy {
+
+    static BranchingStrategy of(Branching branching, int n1, int n2) {
+        switch (branching) {
+        case LEARNED:
+            return new LearnedBranching(n1, n2);
+        default:
+            return new DegreeBranching();
+        }
+    }
+
+    int selectVertexFromG(LabelClasses labelClasses, int labelClass);
+
+    /**
+     * Moves the next vertex of H to be matched to the slot right after H and
+     * returns it. Previous is the vertex matched before, -1 for the first one,
+     * and tried holds all vertices matched so far.
+     */
+    int moveNextVertexFromHToEnd(LabelClasses labelClasses, int labelClass, int previous, long[] tried);
+
+    /**
+     * Called after matching v with w, with the number of pairs the bound lost
+     * apart from the matched pair itself
+     */
+    void branched(int v, int w, int boundReduction);
+
+    /** Creates strategy for a search continuing elsewhere, starting from the same state */
+    BranchingStrategy copy();
+}
@@ -0,0 +1,75 @@
+package anc.algorithms;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wall-clock and node limits of a search, shared by all of its workers.
+ * Workers count expanded nodes locally and report them every
+ * {@link #POLL_INTERVAL} nodes, which is also when the clock is read, so
+ * between reports checking the budget is a single volatile read. Workers
+ * searching at the same time each report after their share of the interval
+ * and of the nodes left, so together they stop less than an interval past the
+ * node limit. Searches stopped early report bounds of the nodes they leave
+ * unexplored.
+ */
+class Budget {
+    static final int POLL_INTERVAL = 1024;
+
+    private final long deadline;
+    private final long nodeLimit;
+    private final int nWorkers;
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicInteger remainingBound = new AtomicInteger();
+    private volatile boolean stopped = false;
+
+    /** Limits equal to 0 are disabled */
+    public Budget(long timeLimitMillis, long nodeLimit) {
+        this(timeLimitMillis, nodeLimit, 1);
+    }
+
+    /** Budget shared by nWorkers searching at the same time */
+    public Budget(long timeLimitMillis, long nodeLimit, int nWorkers) {
+        this.deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : 0;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        this.nWorkers = nWorkers;
+    }
+
+    public static Budget unlimited() {
+        return new Budget(0, 0);
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Adds nodes expanded since the last report and returns after how many more
+     * nodes the next report is due
+     */
+    public long report(long newNodes) {
+        final long total = nodes.addAndGet(newNodes);
+        if (total >= nodeLimit || (deadline != 0 && System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        }
+        return Math.max(1, Math.min(POLL_INTERVAL, nodeLimit - total) / nWorkers);
+    }
+
+    public long nodes() {
+        return nodes.get();
+    }
+
+    /** Records the bound of a node left unexplored after stopping */
+    public void reportBound(int bound) {
+        remainingBound.accumulateAndGet(bound, Math::max);
+    }
+
+    /** Bound of everything left unexplored, 0 if the search was not stopped early */
+    public int remainingBound() {
+        return remainingBound.get();
+    }
+}
@@ -0,0 +1,120 @@
+package anc.algorithms;
+
+import static java.lang.String.format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import anc.models.Graph;
+import anc.models.Pair;
+
+/**
+ * State of an exact search saved to a file, so that a later run continues
+ * where an earlier one stopped. The state is the best mapping found and
+ * nogoods refuting every part of the search tree explored so far, which, as
+ * the later run prunes against that mapping, leave to it only what was not
+ * explored yet. Files are replaced atomically, so a run killed while saving
+ * leaves the previous state behind.
+ */
+class Checkpoint {
+    /** First int of every file, tells checkpoints apart from other files */
+    private static final int MAGIC = 0x4d435331;
+
+    public final List<Pair> pairs;
+    public final Nogoods nogoods;
+    /** Whether the search finished, so pairs are maximum */
+    public final boolean finished;
+
+    private Checkpoint(List<Pair> pairs, Nogoods nogoods, boolean finished) {
+        this.pairs = pairs;
+        this.nogoods = nogoods;
+        this.finished = finished;
+    }
+
+    /** Returns null if there is no file at path */
+    public static Checkpoint load(String path, Graph g1, Graph g2) {
+        if (!Files.exists(Paths.get(path))) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(path))))) {
+            if (in.readInt() != MAGIC || in.readInt() != g1.n || in.readInt() != g2.n
+                    || in.readInt() != fingerprint(g1, g2)) {
+                throw new RuntimeException(format("Checkpoint %s was not saved for these graphs!", path));
+            }
+            final boolean finished = in.readBoolean();
+            final List<Pair> pairs = new ArrayList<>();
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                pairs.add(new Pair(in.readInt(), in.readInt()));
+            }
+            return new Checkpoint(pairs, Nogoods.read(in, g1.n, g2.n), finished);
+        } catch (IOException e) {
+            throw new RuntimeException(format("Error with reading checkpoint %s: %s", path, e.getMessage()));
+        }
+    }
+
+    public static void save(String path, Graph g1, Graph g2, List<Pair> pairs, Nogoods nogoods, boolean finished) {
+        final Path target = Paths.get(path);
+        final Path temporary = Paths.get(path + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(g1.n);
+            out.writeInt(g2.n);
+            out.writeInt(fingerprint(g1, g2));
+            out.writeBoolean(finished);
+            out.writeInt(pairs.size());
+            for (Pair p : pairs) {
+                out.writeInt(p.v1);
+                out.writeInt(p.v2);
+            }
+            nogoods.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(format("Error with writing checkpoint %s: %s", path, e.getMessage()));
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException(format("Error with writing checkpoint %s: %s", path, e.getMessage()));
+        }
+    }
+
+    private static int fingerprint(Graph g1, Graph g2) {
+        return Arrays.deepHashCode(new Object[] { g1.vertexLabels, g1.edgeLabels, g2.vertexLabels, g2.edgeLabels });
+    }
+
+    /** Saves checkpoints of a search of g1 and g2 whenever interval passes */
+    static class Schedule {
+        private final String path;
+        private final Graph g1;
+        private final Graph g2;
+        private final long intervalNanos;
+        private long next;
+
+        public Schedule(String path, long intervalMillis, Graph g1, Graph g2) {
+            this.path = path;
+            this.g1 = g1;
+            this.g2 = g2;
+            this.intervalNanos = intervalMillis * 1_000_000;
+            this.next = System.nanoTime() + intervalNanos;
+        }
+
+        public boolean isDue() {
+            return System.nanoTime() - next >= 0;
+        }
+
+        public void save(List<Pair> pairs, Nogoods nogoods, boolean finished) {
+            Checkpoint.save(path, g1, g2, pairs, nogoods, finished);
+            next = System.nanoTime() + intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package anc.algorithms;
+
+import static java.lang.String.format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import anc.algorithms.McSplit.LabelClasses;
+import anc.algorithms.McSplit.Problem;
+import anc.algorithms.McSplit.Search;
+import anc.models.Graph;
+import anc.models.McSplitConfiguration;
+import anc.models.Pair;
+
+/**
+ * Distributes McSplit over worker processes on the same machine, each a JVM
+ * of its own, so that neither garbage collection nor the number of threads of
+ * one JVM limits the search. The coordinator searches the tree above the split
+ * depth itself and gives away every node at the split depth as a
+ * {@link WorkUnit}. Workers connect over local sockets and claim units one at
+ * a time. They stream back better mappings and the nodes they expanded, and
+ * prune against the size of the best mapping of all of them, which the
+ * coordinator sends to every worker whenever it grows. Node limits are
+ * enforced only as often as workers report, so workers may overshoot them
+ * slightly.
+ */
+class Coordinator {
+    /** Time workers have to connect after they are started */
+    private static final int CONNECT_TIMEOUT_MILLIS = 30_000;
+    /** Interval of checking budget while workers search */
+    private static final long POLL_MILLIS = 10;
+
+    private final McSplitConfiguration configuration;
+
+    public Coordinator(McSplitConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Searches the graphs, which are complemented already if they should be,
+     * from the root with label classes given. Bounds of nodes left unexplored
+     * once budget runs out are reported to it. Listener, which may be null,
+     * hears only of the nodes searched here and of mappings found anywhere.
+     */
+    public void search(Graph searched1, Graph searched2, boolean complement, Problem problem,
+            LabelClasses labelClasses, BranchingStrategy strategy, Incumbent incumbent, Budget budget,
+            SearchListener listener) {
+        final int nWorkers = configuration.nWorkers;
+        final List<Process> processes = new ArrayList<>();
+        final List<Connection> connections = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+        try (ServerSocket server = new ServerSocket(0, nWorkers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            for (int i = 0; i < nWorkers; i++) {
+                processes.add(startWorker(server.getLocalPort()));
+            }
+            for (int i = 0; i < nWorkers; i++) {
+                final Connection connection = new Connection(server.accept(), incumbent, budget, listener,
+                        connections);
+                connection.sendProblem(searched1, searched2, complement, configuration);
+                connections.add(connection);
+            }
+
+            final Units units = new Units(incumbent, budget);
+            final List<Future<?>> handlers = new ArrayList<>();
+            for (Connection connection : connections) {
+                handlers.add(executor.submit(() -> {
+                    connection.serve(units);
+                    return null;
+                }));
+            }
+            enumerate(problem, labelClasses, strategy, Math.min(searched1.n, searched2.n), incumbent, budget, units,
+                    listener);
+            units.close();
+            waitFor(handlers, connections, budget);
+        } catch (IOException e) {
+            throw new RuntimeException(format("Error with workers: %s", e.getMessage()), e);
+        } finally {
+            connections.forEach(Connection::close);
+            executor.shutdownNow();
+            processes.forEach(Coordinator::stopWorker);
+        }
+    }
+
+    private static Process startWorker(int port) throws IOException {
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Worker.class.getName(),
+                String.valueOf(port)).inheritIO().start();
+    }
+
+    private static void stopWorker(Process process) {
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Searches the tree above the split depth, turning every node at the split depth into a unit */
+    private void enumerate(Problem problem, LabelClasses labelClasses, BranchingStrategy strategy, int maxSize,
+            Incumbent incumbent, Budget budget, Units units, SearchListener listener) {
+        final int[] M1 = new int[maxSize];
+        final int[] M2 = new int[maxSize];
+        final Search search = new Search(problem, labelClasses, strategy, M1, M2, incumbent, budget) {
+            @Override
+            boolean offload(int from, int to, int depth) {
+                if (depth < configuration.splitDepth) {
+                    return false;
+                }
+                final WorkUnit unit = WorkUnit.of(labelClasses, from, to, M1, M2, depth);
+                if (unit.bound > incumbent.size()) {
+                    units.add(unit);
+                }
+                return true;
+            }
+        }.withListener(listener);
+        search.search(0, labelClasses.size, 0);
+    }
+
+    /**
+     * Waits until every connection runs out of units, stopping workers once
+     * budget runs out, and rethrows the first failure of a connection
+     */
+    private static void waitFor(List<Future<?>> handlers, List<Connection> connections, Budget budget) {
+        boolean stopped = false;
+        try {
+            for (Future<?> handler : handlers) {
+                while (true) {
+                    try {
+                        handler.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        // Reads the clock
+                        budget.report(0);
+                        if (budget.isStopped() && !stopped) {
+                            for (Connection connection : connections) {
+                                connection.stop();
+                            }
+                            stopped = true;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(format("Worker failed: %s", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    /** Units waiting for workers, closed once the coordinator gives away no more */
+    private static class Units {
+        private final BlockingQueue<WorkUnit> queue = new LinkedBlockingQueue<>();
+        private final Incumbent incumbent;
+        private final Budget budget;
+        private volatile boolean closed = false;
+
+        Units(Incumbent incumbent, Budget budget) {
+            this.incumbent = incumbent;
+            this.budget = budget;
+        }
+
+        void add(WorkUnit unit) {
+            queue.add(unit);
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        /**
+         * Returns the next unit that can still beat the incumbent, or null if
+         * there are none left, the target is reached or budget ran out, in which
+         * case bounds of units left are reported to it
+         */
+        WorkUnit take() throws InterruptedException {
+            while (true) {
+                if (incumbent.isTargetReached()) {
+                    return null;
+                }
+                if (budget.isStopped()) {
+                    for (WorkUnit unit = queue.poll(); unit != null; unit = queue.poll()) {
+                        budget.reportBound(unit.bound);
+                    }
+                    return null;
+                }
+                // Units are all added before closing, so none is left if the queue is empty after it
+                final boolean wasClosed = closed;
+                final WorkUnit unit = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (unit != null && unit.bound > incumbent.size()) {
+                    return unit;
+                }
+                if (unit == null && wasClosed) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /** Socket of a worker, writes are synchronized as every connection sends bounds to all workers */
+    private static class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Incumbent incumbent;
+        private final Budget budget;
+        private final SearchListener listener;
+        private final List<Connection> connections;
+        /** Size of the best mapping sent to the worker last */
+        private int sentBound = 0;
+
+        Connection(Socket socket, Incumbent incumbent, Budget budget, SearchListener listener,
+                List<Connection> connections) throws IOException {
+            socket.setTcpNoDelay(true);
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.incumbent = incumbent;
+            this.budget = budget;
+            this.listener = listener;
+            this.connections = connections;
+        }
+
+        synchronized void sendProblem(Graph searched1, Graph searched2, boolean complement,
+                McSplitConfiguration configuration) throws IOException {
+            out.writeByte(Worker.PROBLEM);
+            Worker.writeGraph(out, searched1);
+            Worker.writeGraph(out, searched2);
+            out.writeBoolean(configuration.connected);
+            out.writeBoolean(complement);
+            out.writeUTF(configuration.branching.name());
+            out.flush();
+        }
+
+        /** Searches units on the worker until there are none left */
+        void serve(Units units) throws IOException, InterruptedException {
+            for (WorkUnit unit = units.take(); unit != null; unit = units.take()) {
+                synchronized (this) {
+                    writeBound(incumbent.size());
+                    out.writeByte(Worker.UNIT);
+                    unit.write(out);
+                    out.flush();
+                }
+                receiveUntilFinished();
+            }
+        }
+
+        private void receiveUntilFinished() throws IOException {
+            while (true) {
+                final byte message = in.readByte();
+                if (message == Worker.INCUMBENT) {
+                    final List<Pair> pairs = new ArrayList<>();
+                    final int size = in.readInt();
+                    for (int i = 0; i < size; i++) {
+                        pairs.add(new Pair(in.readInt(), in.readInt()));
+                    }
+                    if (incumbent.offer(pairs)) {
+                        if (listener != null) {
+                            listener.improved(size);
+                        }
+                        broadcastBound();
+                    }
+                } else if (message == Worker.NODES) {
+                    budget.report(in.readLong());
+                } else if (message == Worker.FINISHED) {
+                    final int bound = in.readInt();
+                    if (bound > 0) {
+                        budget.reportBound(bound);
+                    }
+                    return;
+                } else {
+                    throw new IOException("Unknown message " + message);
+                }
+            }
+        }
+
+        /** Failures of other workers are left to their own connections */
+        private void broadcastBound() {
+            final int bound = incumbent.size();
+            for (Connection connection : connections) {
+                try {
+                    synchronized (connection) {
+                        connection.writeBound(bound);
+                        connection.out.flush();
+                    }
+                } catch (IOException e) {
+                    // Reported by the connection reading from that worker
+                }
+            }
+        }
+
+        private void writeBound(int bound) throws IOException {
+            if (bound > sentBound) {
+                out.writeByte(Worker.BOUND);
+                out.writeInt(bound);
+                sentBound = bound;
+            }
+        }
+
+        synchronized void stop() {
+            try {
+                out.writeByte(Worker.STOP);
+                out.flush();
+            } catch (IOException e) {
+                // Reported by the connection reading from that worker
+            }
+        }
+
+        /** Tells the worker to quit and closes the socket, which also ends reading from it */
+        synchronized void close() {
+            try {
+                out.writeByte(Worker.QUIT);
+                out.flush();
+            } catch (IOException e) {
+                // Worker is gone already
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package anc.algorithms;
+
+import anc.algorithms.McSplit.LabelClasses;
+
+/** Vertex of G with the largest degree, ties by the smallest index, matched with vertices of H in ascending order */
+class DegreeBranching implements BranchingStrategy {
+
+    @Override
+    public int selectVertexFromG(LabelClasses labelClasses, int labelClass) {
+        return labelClasses.selectVertexFromG(labelClass);
+    }
+
+    @Override
+    public int moveNextVertexFromHToEnd(LabelClasses labelClasses, int labelClass, int previous, long[] tried) {
+        return labelClasses.moveNextVertexFromHToEnd(labelClass, previous);
+    }
+
+    @Override
+    public void branched(int v, int w, int boundReduction) {
+    }
+
+    @Override
+    public BranchingStrategy copy() {
+        return this;
+    }
+}
@@ -0,0 +1,69 @@
+package anc.algorithms;
+
+import java.util.List;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+import anc.models.Pair;
+
+/**
+ * Solves maximum common subgraph by deciding for k = min(|g1|, |g2|), k - 1,
+ * ... whether a common subgraph of k vertices exists, and stops at the first k
+ * for which it does. Every decision prunes all nodes that cannot reach k, so
+ * for nearly isomorphic graphs, whose optimum is close to the size of the
+ * smaller graph, it never has to prove that smaller subgraphs are not optimal.
+ * The time and node limits of configuration are shared by all decisions.
+ */
+public class DownSearch implements ExactAlgorithm {
+    private final McSplitConfiguration configuration;
+    private final McSplit mcSplit;
+
+    public DownSearch() {
+        this(McSplitConfiguration.defaults());
+    }
+
+    public DownSearch(McSplitConfiguration configuration) {
+        this.configuration = configuration;
+        this.mcSplit = new McSplit(configuration);
+    }
+
+    public static DownSearch fromConfiguration(McSplitConfiguration conf) {
+        return new DownSearch(conf);
+    }
+
+    /**
+     * If budget runs out, no subgraph is returned, but every k above the upper
+     * bound of the result was already refuted
+     */
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
+        final Incumbent incumbent = new Incumbent(0, Math.min(g1.n, g2.n));
+        final int upperBound = search(g1, g2, incumbent, newBudget());
+        return new MaximumCommonSubgraph(incumbent.pairs(), g1, g2, upperBound);
+    }
+
+    @Override
+    public Budget newBudget() {
+        return new Budget(configuration.timeLimitMillis, configuration.nodeLimit);
+    }
+
+    /**
+     * Decisions stop at the size of incumbent, so mappings found by others
+     * sharing it spare the refutations of the smallest sizes
+     */
+    @Override
+    public int search(Graph g1, Graph g2, Incumbent incumbent, Budget budget) {
+        for (int k = Math.min(g1.n, g2.n); k > incumbent.size(); k--) {
+            final List<Pair> M = mcSplit.findOfSize(g1, g2, k, budget);
+            if (M != null) {
+                incumbent.offer(M);
+                return k;
+            }
+            if (budget.isStopped()) {
+                return k;
+            }
+        }
+        return incumbent.size();
+    }
+}
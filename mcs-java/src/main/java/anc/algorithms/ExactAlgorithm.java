@@ -0,0 +1,20 @@
+package anc.algorithms;
+
+import anc.models.Graph;
+
+/**
+ * Exact algorithm whose search can share its incumbent with other algorithms
+ * working on the same pair of graphs, pruning against mappings found by any of
+ * them, and be stopped from outside through its budget
+ */
+interface ExactAlgorithm extends MaximumCommonSubgraphAlgorithm {
+    /** Budget with limits of the configuration of the algorithm */
+    Budget newBudget();
+
+    /**
+     * Offers every bigger mapping it finds to incumbent and returns upper bound
+     * on the size of maximum common subgraph, which is the size of incumbent if
+     * the search finished within budget
+     */
+    int search(Graph g1, Graph g2, Incumbent incumbent, Budget budget);
+}
@@ -10,9 +10,15 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import anc.models.GeneticConfiguration;
 import anc.models.Graph;
@@ -20,17 +26,20 @@ import anc.models.MaximumCommonSubgraph;
 import anc.models.Pair;
 
 public class Genetic implements MaximumCommonSubgraphAlgorithm {
-    static final int SEED = 13;
-    static final Random random = new Random(SEED);
-
     private final int nGenomes;
     private final int nGenerations;
     private final int nCb;
     private final int nTribes;
     private final double pCrossover;
     private final double pMutation;
+    private final long seed;
 
     public Genetic(int nGenomes, int nGenerations, int nCb, int nTribes, double pCrossover, double pMutation) {
+        this(nGenomes, nGenerations, nCb, nTribes, pCrossover, pMutation, GeneticConfiguration.DEFAULT_SEED);
+    }
+
+    public Genetic(int nGenomes, int nGenerations, int nCb, int nTribes, double pCrossover, double pMutation,
+            long seed) {
         if (nGenomes % nTribes != 0) {
             throw new RuntimeException(format("Number of genomes %s must be devisable by the number of tribes %s!",
                     nGenerations, nTribes));
@@ -42,10 +51,12 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
         this.nTribes = nTribes;
         this.pCrossover = pCrossover;
         this.pMutation = pMutation;
+        this.seed = seed;
     }
 
     public static Genetic fromConfiguration(GeneticConfiguration conf) {
-        return new Genetic(conf.nGenomes, conf.nGenerations, conf.nCb, conf.nTribes, conf.pCrossover, conf.pMutation);
+        return new Genetic(conf.nGenomes, conf.nGenerations, conf.nCb, conf.nTribes, conf.pCrossover, conf.pMutation,
+                conf.seed);
     }
 
     @Override
@@ -54,66 +65,180 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
             throw new RuntimeException("Graph 1 must not be bigger than graph 2!");
         }
 
-        final int[][] D1 = createDistanceMatrix(g1);
-        final int[][] D2 = createDistanceMatrix(g2);
-        final Population population = Population.generate(nGenomes, g2.n, nTribes, D1, D2);
-        final List<Integer> shuffledTribeIndeces = IntStream.range(0, population.tribeSize).boxed()
-                .collect(Collectors.toList());
+        final boolean labelled = g1.isLabelled() || g2.isLabelled();
+        final int[] vertexLabels = IntStream.concat(Arrays.stream(g1.vertexLabels), Arrays.stream(g2.vertexLabels))
+                .distinct().sorted().toArray();
+        final int[] edgeLabels = Stream.of(g1.edgeLabels, g2.edgeLabels).flatMap(Arrays::stream)
+                .flatMapToInt(Arrays::stream).distinct().sorted().toArray();
+        final DistanceMatrix D1 = DistanceMatrix.of(
+                labelled ? createDistanceMatrix(g1, vertexLabels, edgeLabels) : createDistanceMatrix(g1));
+        final DistanceMatrix D2 = DistanceMatrix.of(
+                labelled ? createDistanceMatrix(g2, vertexLabels, edgeLabels) : createDistanceMatrix(g2));
+        // Streams are split in the same order every run, so results depend on the seed only
+        final SplittableRandom run = new SplittableRandom(seed);
+        final Population population = Population.generate(nGenomes, g2.n, nTribes, D1, D2, run.split());
+        final SplittableRandom migrating = run.split();
+        final Genome initialBest = population.genomes.stream().max(Comparator.comparingDouble(genome -> genome.score))
+                .get().copy();
+
+        // Tribes are islands, every one evolved with its own randoms and best genome between migrations
+        final TribeRandoms[] tribeRandoms = new TribeRandoms[nTribes];
+        final Genome[] tribeBest = new Genome[nTribes];
+        for (int tribe = 0; tribe < nTribes; tribe++) {
+            tribeRandoms[tribe] = new TribeRandoms(run.split());
+            tribeBest[tribe] = initialBest;
+        }
+
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(nTribes, Runtime.getRuntime().availableProcessors()));
+        try {
+            // An interrupted run stops after the current generation with the best genome so far
+            for (int epoch = 0; epoch < nGenerations && !stopped.get() && !Thread.currentThread().isInterrupted();
+                    epoch += nCb) {
+                // Migration
+                population.shuffleAll(migrating);
+
+                final int from = epoch;
+                final int to = Math.min(epoch + nCb, nGenerations);
+                final List<Future<?>> tribes = new ArrayList<>(nTribes);
+                for (int tribe = 0; tribe < nTribes; tribe++) {
+                    final int evolved = tribe;
+                    tribes.add(executor.submit(() -> evolve(population, evolved, from, to, tribeRandoms[evolved],
+                            tribeBest, stopped)));
+                }
+                waitFor(tribes, stopped);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Ties go to the lowest tribe, so the result does not depend on which tribe finished first
+        Genome bestGenome = initialBest;
+        for (Genome genome : tribeBest) {
+            if (bestGenome.score < genome.score) {
+                bestGenome = genome;
+            }
+        }
 
-        Genome bestGenome = population.genomes.stream().max(Comparator.comparingDouble(genome -> genome.score)).get();
+        final List<Pair> M = reduceFunction(D1, D2, bestGenome.genes).stream()
+                .sorted(Comparator.comparingInt(p -> p.v1)).collect(Collectors.toList());
+        return new MaximumCommonSubgraph(M, g1, g2, Arrays.stream(bestGenome.genes).boxed()
+                .collect(Collectors.toList()));
+    }
 
-        for (int generation = 0; generation < nGenerations; generation++) {
+    /**
+     * Evolves the tribe for generations [from, to), the first of which follows a
+     * migration, so the tribe is not shuffled again. Only genomes of the tribe
+     * and its own slot of best genomes are touched.
+     */
+    private void evolve(Population population, int tribe, int from, int to, TribeRandoms randoms, Genome[] tribeBest,
+            AtomicBoolean stopped) {
+        final int tribeStart = tribe * population.tribeSize;
+        final int[] shuffledTribeIndeces = IntStream.range(0, population.tribeSize).toArray();
+        Genome bestGenome = tribeBest[tribe];
+        for (int generation = from; generation < to && !stopped.get(); generation++) {
             // Shuffling
-            if (generation % nCb == 0) {
-                population.shuffleAll();
-            } else {
-                population.shuffleWithinTribe();
+            if (generation > from) {
+                population.shuffleTribe(tribe, randoms.shuffling);
             }
 
             // Crossbreading
-            for (int tribe = 0; tribe < nTribes; tribe++) {
-                Collections.shuffle(shuffledTribeIndeces, random);
-                for (int i = 1; i < population.tribeSize; i += 2) {
-                    if (random.nextDouble() > pCrossover) {
-                        continue;
-                    }
-                    final int tribeStart = tribe * population.tribeSize;
-                    final int index1 = tribeStart + shuffledTribeIndeces.get(i - 1);
-                    final int index2 = tribeStart + shuffledTribeIndeces.get(i);
-
-                    int indexWithSmallerScore = index1;
-                    int indexWithBiggerScore = index2;
-                    if (population.get(index1).score > population.get(index2).score) {
-                        indexWithSmallerScore = index2;
-                        indexWithBiggerScore = index1;
-                    }
+            shuffle(shuffledTribeIndeces, randoms.crossbreeding);
+            for (int i = 1; i < population.tribeSize; i += 2) {
+                if (randoms.crossbreeding.nextDouble() > pCrossover) {
+                    continue;
+                }
+                final int index1 = tribeStart + shuffledTribeIndeces[i - 1];
+                final int index2 = tribeStart + shuffledTribeIndeces[i];
+
+                int indexWithSmallerScore = index1;
+                int indexWithBiggerScore = index2;
+                if (population.get(index1).score > population.get(index2).score) {
+                    indexWithSmallerScore = index2;
+                    indexWithBiggerScore = index1;
+                }
 
-                    final List<Genome> childeren = population.get(index1).crossover(population.get(index2)).stream()
-                            .sorted(Comparator.comparingDouble(g -> g.score)).collect(Collectors.toList());
+                final List<Genome> childeren = population.get(index1).crossover(population.get(index2)).stream()
+                        .sorted(Comparator.comparingDouble(g -> g.score)).collect(Collectors.toList());
 
-                    population.set(indexWithSmallerScore, childeren.get(childeren.size() - 2));
-                    population.set(indexWithBiggerScore, childeren.get(childeren.size() - 1));
+                population.set(indexWithSmallerScore, childeren.get(childeren.size() - 2));
+                population.set(indexWithBiggerScore, childeren.get(childeren.size() - 1));
 
-                    if (bestGenome.score < population.get(indexWithBiggerScore).score) {
-                        bestGenome = population.get(indexWithBiggerScore).copy();
-                    }
+                if (bestGenome.score < population.get(indexWithBiggerScore).score) {
+                    bestGenome = population.get(indexWithBiggerScore).copy();
                 }
             }
 
             // Mutating
-            for (Genome genome : population.genomes) {
-                if (random.nextDouble() <= pMutation) {
-                    genome.mutate();
+            for (int index = tribeStart; index < tribeStart + population.tribeSize; index++) {
+                final Genome genome = population.get(index);
+                if (randoms.mutating.nextDouble() <= pMutation) {
+                    genome.mutate(randoms.mutating);
                     if (bestGenome.score < genome.score) {
                         bestGenome = genome.copy();
                     }
                 }
             }
         }
+        tribeBest[tribe] = bestGenome;
+    }
 
-        final List<Pair> M = reduceFunction(D1, D2, bestGenome.genes).stream()
-                .sorted(Comparator.comparingInt(p -> p.v1)).collect(Collectors.toList());
-        return new MaximumCommonSubgraph(M, g1, g2, bestGenome.genes);
+    /**
+     * Waits for all tribes of an epoch. If the calling thread is interrupted,
+     * tribes are told to stop after their current generation and the interrupt
+     * is restored once they have.
+     */
+    private static void waitFor(List<Future<?>> tribes, AtomicBoolean stopped) {
+        boolean interrupted = false;
+        for (Future<?> tribe : tribes) {
+            while (true) {
+                try {
+                    tribe.get();
+                    break;
+                } catch (InterruptedException e) {
+                    stopped.set(true);
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(format("Tribe failed: %s", e.getCause().getMessage()), e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Shuffles values the way {@link Collections#shuffle} shuffles a list of them */
+    static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final int value = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = value;
+        }
+    }
+
+    static <T> void shuffle(List<T> values, SplittableRandom random) {
+        for (int i = values.size(); i > 1; i--) {
+            values.set(i - 1, values.set(random.nextInt(i), values.get(i - 1)));
+        }
+    }
+
+    /**
+     * Streams of random numbers of a tribe, one per operator, so that adding
+     * draws to one operator leaves the others as they were
+     */
+    private static class TribeRandoms {
+        final SplittableRandom shuffling;
+        final SplittableRandom crossbreeding;
+        final SplittableRandom mutating;
+
+        TribeRandoms(SplittableRandom random) {
+            this.shuffling = random.split();
+            this.crossbreeding = random.split();
+            this.mutating = random.split();
+        }
     }
 
     static int[][] createDistanceMatrix(Graph g) {
@@ -150,47 +275,115 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
         return D;
     }
 
-    static int fitnessFunction(int[][] D1, int[][] D2, List<Integer> genes) {
-        final int n1 = D1.length;
+    /**
+     * Distance matrix which also tells labels apart, so that the fitness and
+     * reduce functions respect them. Every distance is scaled by the number of
+     * labels and increased by the index of the label of the edge, or of the
+     * vertex on the diagonal, among labels of both graphs, so two entries are
+     * equal iff both distances and labels are.
+     */
+    static int[][] createDistanceMatrix(Graph g, int[] vertexLabels, int[] edgeLabels) {
+        final int[][] D = createDistanceMatrix(g);
+        final int nLabels = Math.max(vertexLabels.length, edgeLabels.length);
+        for (int i = 0; i < g.n; i++) {
+            for (int j = 0; j < g.n; j++) {
+                final int label = i == j ? Arrays.binarySearch(vertexLabels, g.vertexLabels[i])
+                        : Arrays.binarySearch(edgeLabels, g.edgeLabels[i][j]);
+                D[i][j] = D[i][j] * nLabels + label;
+            }
+        }
+        return D;
+    }
+
+    /** Sum of differences of distances between vertices of g1 and between the vertices of g2 they map to */
+    static int fitnessFunction(DistanceMatrix D1, DistanceMatrix D2, int[] genes) {
+        final int n1 = D1.n;
+        final int n2 = D2.n;
+        final int[] entries1 = D1.entries;
+        final int[] entries2 = D2.entries;
         int sum = 0;
         for (int i = 0; i < n1; i++) {
+            final int row1 = i * n1;
+            final int row2 = genes[i] * n2;
             for (int j = 0; j < n1; j++) {
-                sum += Math.abs(D1[i][j] - D2[genes.get(i)][genes.get(j)]);
+                sum += Math.abs(entries1[row1 + j] - entries2[row2 + genes[j]]);
             }
         }
         return sum;
     }
 
-    static List<Pair> reduceFunction(int[][] D1, int[][] D2, List<Integer> genes) {
-        final int n1 = D1.length;
-        final int[] skipped = new int[n1];
-        Arrays.fill(skipped, -1);
-        List<Pair> M = new ArrayList<>();
-        for (int skip = 0; skip < n1 - 1; skip++) {
-            for (int i = 0; i < skip; i++) {
-                skipped[i] = skip;
-            }
-            for (int i = skip; i < n1; i++) {
-                int tmpSum = 0;
-                for (int j = skip; j <= i; j++) {
-                    if (skipped[j] == skip) {
-                        continue;
-                    }
-                    for (int k = skip; k <= i; k++) {
-                        if (skipped[k] == skip) {
-                            continue;
-                        }
-                        tmpSum += Math.abs(D1[j][k] - D2[genes.get(j)][genes.get(k)]);
-                    }
+    /**
+     * Change of the fitness function if genes at index1 and index2 were
+     * swapped, computed without swapping them. Only the rows and columns of the
+     * two indices change, so it costs O(n1) instead of O(n1^2).
+     */
+    static int swapDelta(DistanceMatrix D1, DistanceMatrix D2, int[] genes, int index1, int index2) {
+        final int n1 = D1.n;
+        final int n2 = D2.n;
+        final int[] entries1 = D1.entries;
+        final int[] entries2 = D2.entries;
+        final int gene1 = genes[index1];
+        final int gene2 = genes[index2];
+        int delta = 0;
+        for (int i = 0; i < n1; i++) {
+            final int row1 = i * n1;
+            final int oldRow2 = genes[i] * n2;
+            if (i == index1 || i == index2) {
+                final int newRow2 = (i == index1 ? gene2 : gene1) * n2;
+                for (int j = 0; j < n1; j++) {
+                    final int newGene = j == index1 ? gene2 : j == index2 ? gene1 : genes[j];
+                    delta += Math.abs(entries1[row1 + j] - entries2[newRow2 + newGene])
+                            - Math.abs(entries1[row1 + j] - entries2[oldRow2 + genes[j]]);
                 }
-                if (tmpSum > 0) {
-                    skipped[i] = skip;
+                continue;
+            }
+            // Rows of other indices change only in the columns of the swapped ones
+            if (index1 < n1) {
+                delta += Math.abs(entries1[row1 + index1] - entries2[oldRow2 + gene2])
+                        - Math.abs(entries1[row1 + index1] - entries2[oldRow2 + gene1]);
+            }
+            if (index2 < n1) {
+                delta += Math.abs(entries1[row1 + index2] - entries2[oldRow2 + gene1])
+                        - Math.abs(entries1[row1 + index2] - entries2[oldRow2 + gene2]);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Biggest mapping of vertices of g1 to their genes whose distances all
+     * agree, kept greedily from every start: vertices before the start are left
+     * out, and every vertex from it on is kept unless it disagrees with itself
+     * or with a vertex kept already. Disagreements are found once as bitsets,
+     * so every start costs O(n1^2 / 64) instead of O(n1^3).
+     */
+    static List<Pair> reduceFunction(DistanceMatrix D1, DistanceMatrix D2, int[] genes) {
+        final int n1 = D1.n;
+        final int words = Bitsets.words(n1);
+        // Row i is the set of vertices whose distances to or from i disagree, it contains i if labels of i do
+        final long[][] disagreeing = new long[n1][words];
+        for (int i = 0; i < n1; i++) {
+            for (int j = 0; j <= i; j++) {
+                if (D1.get(i, j) != D2.get(genes[i], genes[j]) || D1.get(j, i) != D2.get(genes[j], genes[i])) {
+                    Bitsets.add(disagreeing[i], j);
+                    Bitsets.add(disagreeing[j], i);
                 }
             }
+        }
+
+        List<Pair> M = new ArrayList<>();
+        final long[] excluded = new long[words];
+        // A start keeps only vertices from it on, so once too few are left no later start beats M
+        for (int skip = 0; skip < n1 - 1 && n1 - skip > M.size(); skip++) {
+            Arrays.fill(excluded, 0);
             final List<Pair> Mcandidate = new ArrayList<>();
-            for (int i = 0; i < n1; i++) {
-                if (skipped[i] < skip) {
-                    Mcandidate.add(new Pair(i, genes.get(i)));
+            for (int i = skip; i < n1; i++) {
+                if (Bitsets.contains(excluded, i) || Bitsets.contains(disagreeing[i], i)) {
+                    continue;
+                }
+                Mcandidate.add(new Pair(i, genes[i]));
+                for (int word = 0; word < words; word++) {
+                    excluded[word] |= disagreeing[i][word];
                 }
             }
             if (M.size() < Mcandidate.size()) {
@@ -200,60 +393,105 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
         return M;
     }
 
+    /**
+     * Distance matrix flattened row by row into one contiguous array, so the
+     * fitness function reads rows without chasing a pointer per row
+     */
+    public static class DistanceMatrix {
+        public final int n;
+        /** Entry (i, j) is at i * n + j */
+        public final int[] entries;
+
+        private DistanceMatrix(int n, int[] entries) {
+            this.n = n;
+            this.entries = entries;
+        }
+
+        public static DistanceMatrix of(int[][] D) {
+            final int n = D.length;
+            final int[] entries = new int[n * n];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(D[i], 0, entries, i * n, n);
+            }
+            return new DistanceMatrix(n, entries);
+        }
+
+        public int get(int i, int j) {
+            return entries[i * n + j];
+        }
+    }
+
     public static class Genome {
-        public final List<Integer> genes;
+        /** Vertex of g2 every vertex of g1 is mapped to, followed by the vertices of g2 left out */
+        public final int[] genes;
         public int score;
-        public final int[][] D1;
-        public final int[][] D2;
+        public final DistanceMatrix D1;
+        public final DistanceMatrix D2;
 
-        public Genome(List<Integer> genes, int[][] D1, int[][] D2, int score) {
-            this.genes = newArrayList(genes);
+        public Genome(int[] genes, DistanceMatrix D1, DistanceMatrix D2, int score) {
+            this.genes = genes.clone();
             this.D1 = D1;
             this.D2 = D2;
             this.score = score;
         }
 
-        public static Genome create(List<Integer> genes, int[][] D1, int[][] D2) {
+        public static Genome create(int[] genes, DistanceMatrix D1, DistanceMatrix D2) {
             final int score = fitnessFunction(D1, D2, genes);
             return new Genome(genes, D1, D2, score);
         }
 
-        public void mutate() {
-            final int index1 = random.nextInt(genes.size());
-            int index2 = random.nextInt(genes.size() - 1);
+        public void mutate(SplittableRandom random) {
+            final int index1 = random.nextInt(genes.length);
+            int index2 = random.nextInt(genes.length - 1);
             if (index1 == index2) {
                 index2 += 1;
             }
-            Collections.swap(genes, index1, index2);
-
-            final int oldScore = score;
-            recalculateScore();
-            if (score < oldScore) {
-                // Undo swap
-                Collections.swap(genes, index1, index2);
-                score = oldScore;
+            // Swaps that do not lower the score are kept
+            final int delta = swapDelta(index1, index2);
+            if (delta >= 0) {
+                swap(index1, index2, delta);
             }
         }
 
+        /** Change of score if genes at index1 and index2 were swapped */
+        public int swapDelta(int index1, int index2) {
+            return Genetic.swapDelta(D1, D2, genes, index1, index2);
+        }
+
+        /** Swaps genes at index1 and index2, whose swap changes score by delta */
+        public void swap(int index1, int index2, int delta) {
+            final int gene = genes[index1];
+            genes[index1] = genes[index2];
+            genes[index2] = gene;
+            score += delta;
+        }
+
         public List<Genome> crossover(Genome otherParent) {
-            final int nGenes = genes.size();
-            final List<Integer> childGenes1 = new ArrayList<>(Collections.nCopies(nGenes, -1));
-            final List<Integer> childGenes2 = new ArrayList<>(Collections.nCopies(nGenes, -1));
+            final int nGenes = genes.length;
+            final int[] childGenes1 = new int[nGenes];
+            final int[] childGenes2 = new int[nGenes];
+            Arrays.fill(childGenes1, -1);
+            Arrays.fill(childGenes2, -1);
+            // Genes are permutations, so every gene has a single index
+            final int[] indexOf = new int[nGenes];
+            for (int i = 0; i < nGenes; i++) {
+                indexOf[genes[i]] = i;
+            }
 
             int nCycle = 0;
             for (int i = 0; i < nGenes; i++) {
                 int j = i;
                 boolean newCycle = false;
-                while (childGenes1.get(j) < 0) {
+                while (childGenes1[j] < 0) {
                     newCycle = true;
                     if (nCycle % 2 == 0) {
-                        childGenes1.set(j, genes.get(j));
-                        childGenes2.set(j, otherParent.genes.get(j));
+                        childGenes1[j] = genes[j];
+                        childGenes2[j] = otherParent.genes[j];
                     } else {
-                        childGenes1.set(j, otherParent.genes.get(j));
-                        childGenes2.set(j, genes.get(j));
+                        childGenes1[j] = otherParent.genes[j];
+                        childGenes2[j] = genes[j];
                     }
-                    j = genes.indexOf(otherParent.genes.get(j));
+                    j = indexOf[otherParent.genes[j]];
                 }
                 if (newCycle) {
                     nCycle += 1;
@@ -268,9 +506,6 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
             return new Genome(genes, D1, D2, score);
         }
 
-        private void recalculateScore() {
-            this.score = fitnessFunction(D1, D2, genes);
-        }
     }
 
     public static class Population {
@@ -288,15 +523,13 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
             }
         }
 
-        public static Population generate(int nGenomes, int genomeSize, int nTribes, int[][] D1, int[][] D2) {
+        public static Population generate(int nGenomes, int genomeSize, int nTribes, DistanceMatrix D1,
+                DistanceMatrix D2, SplittableRandom random) {
             final List<Genome> genomes = new ArrayList<>(nGenomes);
 
             for (int i = 0; i < nGenomes; i++) {
-                final List<Integer> genes = new ArrayList<>(genomeSize);
-                for (int j = 0; j < genomeSize; j++) {
-                    genes.add(j);
-                }
-                Collections.shuffle(genes, random);
+                final int[] genes = IntStream.range(0, genomeSize).toArray();
+                shuffle(genes, random);
                 genomes.add(Genome.create(genes, D1, D2));
             }
             return new Population(genomes, nTribes);
@@ -310,14 +543,19 @@ public class Genetic implements MaximumCommonSubgraphAlgorithm {
             genomes.set(index, genome);
         }
 
-        public void shuffleAll() {
-            Collections.shuffle(genomes, random);
+        public void shuffleAll(SplittableRandom random) {
+            shuffle(genomes, random);
         }
 
-        public void shuffleWithinTribe() {
+        public void shuffleWithinTribe(SplittableRandom random) {
             for (int j = 0; j < nTribes; j++) {
-                Collections.shuffle(genomes.subList(j * tribeSize, (j + 1) * tribeSize), random);
+                shuffleTribe(j, random);
             }
         }
+
+        /** Shuffles genomes of the tribe only, so tribes can be shuffled concurrently */
+        public void shuffleTribe(int tribe, SplittableRandom random) {
+            shuffle(genomes.subList(tribe * tribeSize, (tribe + 1) * tribeSize), random);
+        }
     }
 }
@@ -0,0 +1,59 @@
+package anc.algorithms;
+
+import java.util.Collections;
+import java.util.List;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.Pair;
+
+/**
+ * Runs a fast heuristic first and uses its result as the initial incumbent of
+ * McSplit, so the exact search can prune from the root instead of waiting until
+ * it finds a good subgraph on its own. Results of the heuristic that are not
+ * induced common subgraphs of both graphs are ignored.
+ */
+public class Hybrid implements MaximumCommonSubgraphAlgorithm {
+    private final MaximumCommonSubgraphAlgorithm heuristic;
+    private final McSplit mcSplit;
+
+    public Hybrid(MaximumCommonSubgraphAlgorithm heuristic, McSplit mcSplit) {
+        this.heuristic = heuristic;
+        this.mcSplit = mcSplit;
+    }
+
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
+        final List<Pair> seed = heuristic.compute(g1, g2).M;
+        if (!isInducedCommonSubgraph(seed, g1, g2)) {
+            return mcSplit.compute(g1, g2, Collections.emptyList());
+        }
+        return mcSplit.compute(g1, g2, seed);
+    }
+
+    /**
+     * Checks that M matches distinct vertices of g1 with distinct vertices of g2
+     * of the same label and that every two matched vertices are joined by edges
+     * of the same label in both graphs or adjacent in neither of them
+     */
+    static boolean isInducedCommonSubgraph(List<Pair> M, Graph g1, Graph g2) {
+        final boolean[] used1 = new boolean[g1.n];
+        final boolean[] used2 = new boolean[g2.n];
+        for (Pair p : M) {
+            if (p.v1 == null || p.v2 == null || p.v1 < 0 || p.v1 >= g1.n || p.v2 < 0 || p.v2 >= g2.n
+                    || used1[p.v1] || used2[p.v2] || g1.vertexLabels[p.v1] != g2.vertexLabels[p.v2]) {
+                return false;
+            }
+            used1[p.v1] = true;
+            used2[p.v2] = true;
+        }
+        for (int i = 0; i < M.size(); i++) {
+            for (int j = i + 1; j < M.size(); j++) {
+                if (g1.edgeLabels[M.get(i).v1][M.get(j).v1] != g2.edgeLabels[M.get(i).v2][M.get(j).v2]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package anc.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import anc.models.Pair;
+
+/**
+ * Best mapping found so far, shared by all searches working on the same pair of
+ * graphs. Mappings are immutable snapshots swapped in with compare-and-set, so
+ * pruning against the incumbent costs a couple of volatile reads and never
+ * blocks.
+ */
+class Incumbent {
+    private final AtomicReference<Mapping> best = new AtomicReference<>(new Mapping(new int[0], new int[0]));
+    /** Searches prune as if a mapping of that size was already found */
+    private final AtomicInteger floor;
+    /** Size of mapping after which searches stop, as nothing bigger exists */
+    private final int target;
+
+    public Incumbent() {
+        this(0, Integer.MAX_VALUE);
+    }
+
+    public Incumbent(int floor, int target) {
+        this.floor = new AtomicInteger(floor);
+        this.target = target;
+    }
+
+    /** Size of the best mapping, but at least floor */
+    public int size() {
+        return Math.max(floor.get(), best.get().M1.length);
+    }
+
+    /** Makes searches prune as if a mapping of size was found elsewhere */
+    public void raiseFloor(int size) {
+        floor.accumulateAndGet(size, Math::max);
+    }
+
+    public boolean isTargetReached() {
+        return best.get().M1.length >= target;
+    }
+
+    /**
+     * Replaces the incumbent with the first size pairs (M1[i], M2[i]) if they
+     * form a bigger mapping, returns true if it did
+     */
+    public boolean offer(int[] M1, int[] M2, int size) {
+        Mapping current = best.get();
+        if (size <= current.M1.length) {
+            return false;
+        }
+        final Mapping candidate = new Mapping(Arrays.copyOf(M1, size), Arrays.copyOf(M2, size));
+        while (size > current.M1.length) {
+            if (best.compareAndSet(current, candidate)) {
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+
+    /** Replaces the incumbent with pairs if they form a bigger mapping, returns true if it did */
+    public boolean offer(List<Pair> pairs) {
+        final int[] M1 = new int[pairs.size()];
+        final int[] M2 = new int[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            M1[i] = pairs.get(i).v1;
+            M2[i] = pairs.get(i).v2;
+        }
+        return offer(M1, M2, pairs.size());
+    }
+
+    /** Results are sorted by v1 */
+    public List<Pair> pairs() {
+        final Mapping mapping = best.get();
+        final List<Pair> M = new ArrayList<>(mapping.M1.length);
+        for (int i = 0; i < mapping.M1.length; i++) {
+            M.add(new Pair(mapping.M1[i], mapping.M2[i]));
+        }
+        M.sort(Comparator.comparingInt(p -> p.v1));
+        return M;
+    }
+
+    private static class Mapping {
+        final int[] M1;
+        final int[] M2;
+
+        Mapping(int[] M1, int[] M2) {
+            this.M1 = M1;
+            this.M2 = M2;
+        }
+    }
+}
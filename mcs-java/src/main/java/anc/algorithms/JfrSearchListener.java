@@ -0,0 +1,92 @@
+package anc.algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+
+/**
+ * Statistics that are also recorded as custom JFR events while a flight
+ * recording is running: an event for every better mapping and one spanning
+ * the whole run with its totals. Events are disabled unless a recording
+ * enables them, as every event of the JDK is, and then cost a single check.
+ */
+public class JfrSearchListener extends SearchStatistics {
+    private SearchEvent search;
+
+    @Override
+    public void started(Graph g1, Graph g2) {
+        super.started(g1, g2);
+        search = new SearchEvent();
+        search.n1 = g1.n;
+        search.n2 = g2.n;
+        search.begin();
+    }
+
+    @Override
+    public void improved(int size) {
+        super.improved(size);
+        final IncumbentEvent event = new IncumbentEvent();
+        if (event.isEnabled()) {
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void finished(MaximumCommonSubgraph mcs) {
+        super.finished(mcs);
+        search.end();
+        if (search.shouldCommit()) {
+            search.size = size();
+            search.upperBound = upperBound();
+            search.nodes = nodes();
+            search.maxDepth = maxDepth();
+            search.prunedByBound = pruned(Prune.BOUND);
+            search.prunedDisconnected = pruned(Prune.DISCONNECTED);
+            search.prunedByNogood = pruned(Prune.NOGOOD);
+            search.allocatedBytes = allocatedBytes();
+            search.commit();
+        }
+    }
+
+    @Name("anc.McsSearch")
+    @Label("Maximum Common Subgraph Search")
+    @Category("Maximum Common Subgraph")
+    @Description("Run of a search with its totals")
+    static class SearchEvent extends Event {
+        @Label("Vertices of g1")
+        int n1;
+        @Label("Vertices of g2")
+        int n2;
+        @Label("Size")
+        int size;
+        @Label("Upper Bound")
+        int upperBound;
+        @Label("Expanded Nodes")
+        long nodes;
+        @Label("Max Depth")
+        int maxDepth;
+        @Label("Pruned by Bound")
+        long prunedByBound;
+        @Label("Pruned as Disconnected")
+        long prunedDisconnected;
+        @Label("Pruned by Nogood")
+        long prunedByNogood;
+        @Label("Allocated Bytes")
+        long allocatedBytes;
+    }
+
+    @Name("anc.McsIncumbent")
+    @Label("Better Mapping")
+    @Category("Maximum Common Subgraph")
+    @Description("Search found a mapping bigger than any before")
+    static class IncumbentEvent extends Event {
+        @Label("Size")
+        int size;
+    }
+}
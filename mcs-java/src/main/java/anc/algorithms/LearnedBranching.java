@@ -0,0 +1,65 @@
+package anc.algorithms;
+
+import anc.algorithms.McSplit.LabelClasses;
+
+/**
+ * Branching in the style of McSplit+RL. Every vertex of g1 and g2 has a score,
+ * which grows by how much the bound went down each time the vertex was
+ * matched, so vertices that quickly lead to small subtrees are tried first.
+ * Vertices with equal scores are ordered as by {@link DegreeBranching}.
+ */
+class LearnedBranching implements BranchingStrategy {
+    private final long[] scores1;
+    private final long[] scores2;
+
+    public LearnedBranching(int n1, int n2) {
+        this(new long[n1], new long[n2]);
+    }
+
+    private LearnedBranching(long[] scores1, long[] scores2) {
+        this.scores1 = scores1;
+        this.scores2 = scores2;
+    }
+
+    @Override
+    public int selectVertexFromG(LabelClasses labelClasses, int labelClass) {
+        int best = -1;
+        final int end = labelClasses.startG[labelClass] + labelClasses.sizeG[labelClass];
+        for (int i = labelClasses.startG[labelClass]; i < end; i++) {
+            final int vertex = labelClasses.G[i];
+            if (best == -1 || scores1[vertex] > scores1[best] || (scores1[vertex] == scores1[best]
+                    && (labelClasses.degreeOfG(vertex) > labelClasses.degreeOfG(best)
+                            || (labelClasses.degreeOfG(vertex) == labelClasses.degreeOfG(best) && vertex < best)))) {
+                best = vertex;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int moveNextVertexFromHToEnd(LabelClasses labelClasses, int labelClass, int previous, long[] tried) {
+        final int start = labelClasses.startH[labelClass];
+        final int last = start + labelClasses.sizeH[labelClass];
+        int next = -1;
+        for (int i = start; i <= last; i++) {
+            final int vertex = labelClasses.H[i];
+            if (!Bitsets.contains(tried, vertex) && (next == -1 || scores2[vertex] > scores2[labelClasses.H[next]]
+                    || (scores2[vertex] == scores2[labelClasses.H[next]] && vertex < labelClasses.H[next]))) {
+                next = i;
+            }
+        }
+        labelClasses.swapH(next, last);
+        return labelClasses.H[last];
+    }
+
+    @Override
+    public void branched(int v, int w, int boundReduction) {
+        scores1[v] += boundReduction;
+        scores2[w] += boundReduction;
+    }
+
+    @Override
+    public BranchingStrategy copy() {
+        return new LearnedBranching(scores1.clone(), scores2.clone());
+    }
+}
@@ -5,4 +5,16 @@ import anc.models.MaximumCommonSubgraph;
 
 public interface MaximumCommonSubgraphAlgorithm {
     MaximumCommonSubgraph compute(Graph g1, Graph g2);
+
+    /**
+     * Computes maximum common subgraph reporting to listener, algorithms that
+     * do not report their search report only the mapping they return
+     */
+    default MaximumCommonSubgraph compute(Graph g1, Graph g2, SearchListener listener) {
+        listener.started(g1, g2);
+        final MaximumCommonSubgraph mcs = compute(g1, g2);
+        listener.improved(mcs.M.size());
+        listener.finished(mcs);
+        return mcs;
+    }
 }
@@ -1,197 +1,1235 @@
 package anc.algorithms;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static java.lang.String.format;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.IntStream;
 
+import anc.algorithms.SearchListener.Prune;
+import anc.models.Branching;
 import anc.models.Graph;
 import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
 import anc.models.Pair;
+import anc.models.Restarts;
 
-public class McSplit implements MaximumCommonSubgraphAlgorithm {
-    private Graph g1;
-    private Graph g2;
-    private List<Pair> bestM;
+public class McSplit implements ExactAlgorithm {
+    private final McSplitConfiguration configuration;
 
+    public McSplit() {
+        this(McSplitConfiguration.defaults());
+    }
+
+    public McSplit(McSplitConfiguration configuration) {
+        if (configuration.nThreads < 1) {
+            throw new RuntimeException(format("Number of threads %s must be at least 1!", configuration.nThreads));
+        }
+        if (configuration.complementDensity < 0 || configuration.complementDensity > 1) {
+            throw new RuntimeException(format("Complement density %s must be between 0 and 1!",
+                    configuration.complementDensity));
+        }
+        if (configuration.timeLimitMillis < 0 || configuration.nodeLimit < 0) {
+            throw new RuntimeException(format("Time limit %s and node limit %s must not be negative!",
+                    configuration.timeLimitMillis, configuration.nodeLimit));
+        }
+        if (configuration.restarts != Restarts.NONE && configuration.nThreads > 1) {
+            throw new RuntimeException(format("Restarts %s run on a single thread, not %s!", configuration.restarts,
+                    configuration.nThreads));
+        }
+        if (configuration.checkpointPath != null && configuration.nThreads > 1) {
+            throw new RuntimeException(format("Checkpoints are saved by a single thread, not %s!",
+                    configuration.nThreads));
+        }
+        if (configuration.nWorkers < 0 || (configuration.nWorkers > 0 && configuration.splitDepth < 1)) {
+            throw new RuntimeException(format("Number of workers %s must not be negative and split depth %s must "
+                    + "be at least 1!", configuration.nWorkers, configuration.splitDepth));
+        }
+        if (configuration.nWorkers > 0 && (configuration.nThreads > 1 || configuration.restarts != Restarts.NONE
+                || configuration.checkpointPath != null)) {
+            throw new RuntimeException("Workers search on a single thread, without restarts and checkpoints!");
+        }
+        this.configuration = configuration;
+    }
+
+    public static McSplit fromConfiguration(McSplitConfiguration conf) {
+        return new McSplit(conf);
+    }
+
+    /**
+     * Computes maximum common subgraph within the time and node limits of
+     * configuration. If the search runs out of budget, the best mapping found so
+     * far is returned together with an upper bound on the size of the optimum.
+     */
     @Override
     public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
-        this.g1 = g1;
-        this.g2 = g2;
-        bestM = newArrayList();
-        search(LabelClasses.from(g1, g2), newArrayList());
-        final List<Pair> sortedM = bestM.stream().sorted(Comparator.comparingInt(p -> p.v1)).collect(Collectors.toList());
-        return new MaximumCommonSubgraph(sortedM, g1, g2);
+        return compute(g1, g2, Collections.emptyList());
+    }
+
+    /**
+     * Computes maximum common subgraph starting from a known common subgraph,
+     * which must be induced, so that the search prunes against it from the root.
+     * The result is the seed itself unless a bigger subgraph is found.
+     *
+     * Induced common subgraphs of two graphs are exactly the induced common
+     * subgraphs of their complements, so dense graphs are searched as their
+     * complements, where splitting label classes makes them shrink much faster.
+     * The result is still given in terms of the original graphs. Complements
+     * do not keep edge labels, so graphs with edge labels are never complemented.
+     *
+     * Labelled graphs start with one label class per vertex label and split
+     * every label class by the label of the edge to the matched vertex, so only
+     * vertices and edges of equal labels are ever matched.
+     *
+     * In connected mode only connected common subgraphs are searched. After the
+     * first pair is matched, only label classes of vertices adjacent to the
+     * mapping are branched on, and the bound counts only vertices that can still
+     * be reached from the mapping through vertices of label classes.
+     *
+     * With workers, the search above the split depth runs here and every node
+     * at the split depth is searched by one of the worker processes, see
+     * {@link Coordinator}.
+     */
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2, List<Pair> seed) {
+        return compute(g1, g2, seed, null);
+    }
+
+    /** Reports every node, pruned node and better mapping of the search to listener */
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2, SearchListener listener) {
+        listener.started(g1, g2);
+        final MaximumCommonSubgraph mcs = compute(g1, g2, Collections.emptyList(), listener);
+        listener.finished(mcs);
+        return mcs;
+    }
+
+    private MaximumCommonSubgraph compute(Graph g1, Graph g2, List<Pair> seed, SearchListener listener) {
+        // Nothing can be bigger than the smaller graph, so the search stops once it is matched whole
+        final Incumbent incumbent = new Incumbent(0, Math.min(g1.n, g2.n));
+        incumbent.offer(seed);
+
+        final int upperBound = search(g1, g2, incumbent, newBudget(), configuration.checkpointPath != null,
+                listener);
+        return new MaximumCommonSubgraph(incumbent.pairs(), g1, g2, upperBound);
+    }
+
+    @Override
+    public Budget newBudget() {
+        return new Budget(configuration.timeLimitMillis, configuration.nodeLimit, configuration.nThreads);
+    }
+
+    /**
+     * Decides whether g1 and g2 have a common subgraph of at least k vertices,
+     * knowing that they have none bigger than k. Every node whose bound is below
+     * k is pruned, and the search stops at the first subgraph of k vertices,
+     * which is returned. Returns null if there is none or budget, shared by all
+     * decisions, runs out first.
+     */
+    List<Pair> findOfSize(Graph g1, Graph g2, int k, Budget budget) {
+        final Incumbent incumbent = new Incumbent(k - 1, k);
+        // Nogoods of a decision only hold for its floor, so decisions are never checkpointed
+        search(g1, g2, incumbent, budget, false, null);
+        return incumbent.isTargetReached() ? incumbent.pairs() : null;
     }
 
-    private void search(LabelClasses labelClasses, List<Pair> M) {
-        if (M.size() > bestM.size()) {
-            bestM = newArrayList(M);
+    @Override
+    public int search(Graph g1, Graph g2, Incumbent incumbent, Budget budget) {
+        return search(g1, g2, incumbent, budget, configuration.checkpointPath != null, null);
+    }
+
+    /**
+     * With checkpoints, the search saves its state every interval of the
+     * configuration, when its budget runs out and once it finishes, and resumes
+     * from the saved state if told to. Listener may be null.
+     */
+    private int search(Graph g1, Graph g2, Incumbent incumbent, Budget budget, boolean checkpointed,
+            SearchListener listener) {
+        Checkpoint.Schedule checkpoints = null;
+        Nogoods nogoods = new Nogoods(g1.n, g2.n);
+        if (checkpointed) {
+            final Checkpoint checkpoint = configuration.resume
+                    ? Checkpoint.load(configuration.checkpointPath, g1, g2)
+                    : null;
+            if (checkpoint != null) {
+                incumbent.offer(checkpoint.pairs);
+                if (checkpoint.finished) {
+                    return incumbent.size();
+                }
+                nogoods = checkpoint.nogoods;
+            }
+            checkpoints = new Checkpoint.Schedule(configuration.checkpointPath,
+                    configuration.checkpointIntervalMillis, g1, g2);
+        }
+
+        final boolean complement = (g1.density() + g2.density()) / 2 > configuration.complementDensity
+                && !g1.hasEdgeLabels() && !g2.hasEdgeLabels();
+        final Graph searched1 = complement ? g1.complement() : g1;
+        final Graph searched2 = complement ? g2.complement() : g2;
+
+        final int maxSize = Math.min(g1.n, g2.n);
+        final Problem problem = Problem.of(searched1, searched2, configuration.symmetryBreaking);
+        final LabelClasses labelClasses = LabelClasses.from(searched1, searched2);
+        if (configuration.connected) {
+            labelClasses.connect(complement);
         }
+        final BranchingStrategy strategy = BranchingStrategy.of(configuration.branching, g1.n, g2.n);
 
-        int bound = M.size() + labelClasses.sumPairsOfVertices();
-        if (bound <= bestM.size()) {
-            return;
+        if (configuration.restarts != Restarts.NONE) {
+            searchWithRestarts(problem, labelClasses, strategy, maxSize, incumbent, budget, nogoods, checkpoints,
+                    listener);
+        } else if (configuration.nWorkers > 0) {
+            new Coordinator(configuration).search(searched1, searched2, complement, problem, labelClasses, strategy,
+                    incumbent, budget, listener);
+        } else if (configuration.nThreads == 1) {
+            final Search search = new Search(problem, labelClasses, strategy, new int[maxSize], new int[maxSize],
+                    incumbent, budget).withListener(listener);
+            if (checkpoints != null) {
+                search.withCheckpoints(nogoods, checkpoints);
+            }
+            search.search(0, labelClasses.size, 0);
+        } else {
+            final ForkJoinPool pool = new ForkJoinPool(configuration.nThreads);
+            try {
+                pool.invoke(new SearchTask(problem, labelClasses, strategy, new int[maxSize], new int[maxSize], 0,
+                        incumbent, budget, listener));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        // Reporting the last nodes may stop budget after the search finished, which leaves no bound behind
+        if (checkpoints != null && budget.remainingBound() <= incumbent.size()) {
+            checkpoints.save(incumbent.pairs(), new Nogoods(g1.n, g2.n), true);
+        }
+        return Math.max(incumbent.size(), budget.remainingBound());
+    }
+
+    /**
+     * Runs the search from the root again and again, each run limited to the
+     * number of nodes given by the schedule of restarts. Runs share the
+     * incumbent and every aborted run leaves behind nogoods for the parts of the
+     * tree it refuted, so the last run, which finishes within its limit, is
+     * exact. Strategies with scores keep learning across runs, and the degree
+     * heuristic is matched with vertices of H in random order after the first
+     * run, so runs do not get stuck below the same first choices.
+     */
+    private void searchWithRestarts(Problem problem, LabelClasses labelClasses, BranchingStrategy strategy,
+            int maxSize, Incumbent incumbent, Budget budget, Nogoods nogoods, Checkpoint.Schedule checkpoints,
+            SearchListener listener) {
+        BranchingStrategy runStrategy = strategy;
+        for (int run = 0; !budget.isStopped(); run++) {
+            final LabelClasses runLabelClasses = labelClasses.copyOf(0, labelClasses.size);
+            final Search search = new Search(problem, runLabelClasses, runStrategy, new int[maxSize],
+                    new int[maxSize], incumbent, budget).withRestart(configuration.restarts.nodeLimitOfRun(run),
+                            nogoods).withListener(listener);
+            if (checkpoints != null) {
+                search.withCheckpoints(nogoods, checkpoints);
+            }
+            search.search(0, runLabelClasses.size, 0);
+            if (!search.isRestarting()) {
+                return;
+            }
+            if (configuration.branching == Branching.DEGREE && run == 0) {
+                runStrategy = new RandomizedBranching(strategy, new Random(0));
+            }
+        }
+    }
+
+    /** Data of a pair of graphs shared by all searches working on them */
+    static class Problem {
+        /** Adjacency matrices of g1 and g2 as rows of bits */
+        public final long[][] rows1;
+        public final long[][] rows2;
+        /** Rows of bits split by edge label, the same for every label class split */
+        public final long[][][] labelRows1;
+        public final long[][][] labelRows2;
+        /** Vertices symmetric to each other, which the root of the search branches on only once */
+        public final Orbits orbits1;
+        public final Orbits orbits2;
+
+        /** Problem of graphs without edge labels */
+        public Problem(long[][] rows1, long[][] rows2, Orbits orbits1, Orbits orbits2) {
+            this(rows1, rows2, singleLabelRows(rows1), singleLabelRows(rows2), orbits1, orbits2);
+        }
+
+        public Problem(long[][] rows1, long[][] rows2, long[][][] labelRows1, long[][][] labelRows2,
+                Orbits orbits1, Orbits orbits2) {
+            this.rows1 = rows1;
+            this.rows2 = rows2;
+            this.labelRows1 = labelRows1;
+            this.labelRows2 = labelRows2;
+            this.orbits1 = orbits1;
+            this.orbits2 = orbits2;
+        }
+
+        /** Problem of the graphs searched, which are complemented already if they should be */
+        public static Problem of(Graph searched1, Graph searched2, boolean symmetryBreaking) {
+            final int[] edgeLabels = IntStream
+                    .concat(Arrays.stream(searched1.edgeLabels).flatMapToInt(Arrays::stream),
+                            Arrays.stream(searched2.edgeLabels).flatMapToInt(Arrays::stream))
+                    .filter(label -> label != 0).distinct().sorted().toArray();
+            return new Problem(Bitsets.adjacencyRows(searched1), Bitsets.adjacencyRows(searched2),
+                    Bitsets.edgeLabelRows(searched1, edgeLabels), Bitsets.edgeLabelRows(searched2, edgeLabels),
+                    symmetryBreaking ? Orbits.of(searched1) : Orbits.trivial(searched1.n),
+                    symmetryBreaking ? Orbits.of(searched2) : Orbits.trivial(searched2.n));
+        }
+
+        private static long[][][] singleLabelRows(long[][] rows) {
+            final long[][][] labelRows = new long[rows.length][][];
+            for (int v = 0; v < rows.length; v++) {
+                labelRows[v] = new long[][] { rows[v] };
+            }
+            return labelRows;
+        }
+    }
+
+    static class Search {
+        private final Problem problem;
+        private final LabelClasses labelClasses;
+        private final BranchingStrategy strategy;
+        /** Current mapping, pair i is (M1[i], M2[i]) */
+        private final int[] M1;
+        private final int[] M2;
+        private final Incumbent incumbent;
+        private final Budget budget;
+        /** Nodes expanded since the last report to budget */
+        private long nodes = 0;
+        private long nodesToReport;
+
+        // Frames of search nodes on the current path, indexed by depth
+        /** Block of label classes of the node */
+        private final int[] from;
+        private final int[] to;
+        /** Number of live label classes in the block */
+        private final int[] count;
+        /** Sum of min(|G|,|H|) over live label classes */
+        private final int[] pairs;
+        private final int[] bound;
+        /** Label class being branched on and its min(|G|,|H|) before v was taken out */
+        private final int[] selected;
+        private final int[] selectedPairs;
+        /** Matched vertices of the current branch */
+        private final int[] v;
+        private final int[] w;
+        /** Number of branches of the selected label class tried so far and the vertices of H they matched */
+        private final int[] branch;
+        private final long[][] triedH;
+
+        /** Nogoods of restarted runs, null if the search is not restarted */
+        private Nogoods nogoods = null;
+        /** Index in M1 of every matched vertex of g1 */
+        private int[] depthOf;
+        /** Vertices of G skipped by every frame and the vertices of H they were tried with */
+        private List<List<Refutation>> refutations;
+        /** Nodes this run may still expand, negative if unlimited */
+        private long runNodes = -1;
+        /** Depth of the node at which the run hit its limit, -1 if it did not */
+        private int restartDepth = -1;
+        /** Schedule of checkpoints, null if the search is not checkpointed */
+        private Checkpoint.Schedule checkpoints = null;
+        /** Listener of nodes, null if the search is not instrumented */
+        private SearchListener listener = null;
+
+        /** Orbits of g2 already tried by the root */
+        private final boolean[] triedOrbits2;
+
+        public Search(Problem problem, LabelClasses labelClasses, BranchingStrategy strategy, int[] M1, int[] M2,
+                Incumbent incumbent, Budget budget) {
+            this.problem = problem;
+            this.labelClasses = labelClasses;
+            this.strategy = strategy;
+            this.M1 = M1;
+            this.M2 = M2;
+            this.incumbent = incumbent;
+            this.budget = budget;
+            this.nodesToReport = budget.report(0);
+
+            final int maxDepth = M1.length + 1;
+            this.from = new int[maxDepth];
+            this.to = new int[maxDepth];
+            this.count = new int[maxDepth];
+            this.pairs = new int[maxDepth];
+            this.bound = new int[maxDepth];
+            this.selected = new int[maxDepth];
+            this.selectedPairs = new int[maxDepth];
+            this.v = new int[maxDepth];
+            this.w = new int[maxDepth];
+            this.branch = new int[maxDepth];
+            this.triedH = new long[maxDepth][Bitsets.words(problem.rows2.length)];
+            this.triedOrbits2 = new boolean[problem.orbits2.orbit.length];
+        }
+
+        /**
+         * Makes the search a run that is aborted after expanding runNodeLimit
+         * nodes, unless it is 0, and that never branches into parts of the tree
+         * refuted by nogoods. Once aborted, the run records what it refuted.
+         */
+        public Search withRestart(long runNodeLimit, Nogoods nogoods) {
+            withNogoods(nogoods);
+            this.runNodes = runNodeLimit > 0 ? runNodeLimit : -1;
+            return this;
         }
 
-        LabelClass selectedLabelClass = labelClasses.select();
-        int v = selectedLabelClass.selectVertexFromG();
-        for (int w : selectedLabelClass.H) {
-            LabelClasses newLabelClasses = LabelClasses.empty();
-            for (LabelClass labelClass : labelClasses.labelClasses) {
-                List<Integer> neighborsOfV = labelClass.neighborsFromGOf(v);
-                List<Integer> neighborsOfW = labelClass.neighborsFromHOf(w);
-                if (!neighborsOfV.isEmpty() && !neighborsOfW.isEmpty()) {
-                    newLabelClasses.add(new LabelClass(g1, g2, neighborsOfV, neighborsOfW));
+        /**
+         * Makes the search never branch into parts of the tree refuted by
+         * nogoods and save checkpoints of its state on schedule and when budget
+         * runs out. The saved state is nogoods together with what the search
+         * refuted since it started.
+         */
+        public Search withCheckpoints(Nogoods nogoods, Checkpoint.Schedule checkpoints) {
+            if (this.nogoods != nogoods) {
+                withNogoods(nogoods);
+            }
+            this.checkpoints = checkpoints;
+            return this;
+        }
+
+        /** Makes the search report its nodes and better mappings to listener, which may be null */
+        public Search withListener(SearchListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        private void withNogoods(Nogoods nogoods) {
+            this.nogoods = nogoods;
+            this.depthOf = new int[problem.rows1.length];
+            this.refutations = new ArrayList<>(from.length);
+            for (int depth = 0; depth < from.length; depth++) {
+                refutations.add(new ArrayList<>());
+            }
+        }
+
+        public boolean isRestarting() {
+            return restartDepth >= 0;
+        }
+
+        /**
+         * Explores the search node whose label classes are records [from, to) of
+         * {@link #labelClasses} and whose mapping is the first depth pairs of M1/M2.
+         * The search is driven by a stack of frames instead of recursion, so its
+         * depth is not limited by the stack of the thread. Branches are explored in
+         * the same order as by recursion: every pair with the selected vertex v of G
+         * is matched one level deeper, and skipping v stays in the same frame. Once
+         * budget is used up, every node on the path is closed reporting its bound.
+         *
+         * The bound and the heap used to select label classes are built once per
+         * node and then updated as skipping shrinks the selected class, so every
+         * branch costs a logarithmic number of comparisons instead of scanning all
+         * classes.
+         */
+        public void search(int from, int to, int depth) {
+            final int rootDepth = depth;
+            enter(depth, from, to, labelClasses.sumPairsOfVertices(from, to));
+            boolean open = expand(depth);
+            while (true) {
+                if (open) {
+                    final int childTo = nextBranch(depth);
+                    if (childTo < 0) {
+                        open = skip(depth) && expand(depth);
+                        continue;
+                    }
+                    // Pairs of the child are those of the node without v and w, less the ones lost by splitting
+                    final int childPairs = labelClasses.sumPairsOfVertices(this.to[depth], childTo);
+                    strategy.branched(v[depth], w[depth], pairs[depth] - 1 - childPairs);
+                    if (offload(this.to[depth], childTo, depth + 1)) {
+                        open = !stopped(depth);
+                    } else {
+                        enter(depth + 1, this.to[depth], childTo, childPairs);
+                        depth++;
+                        open = expand(depth);
+                    }
+                    continue;
                 }
-                List<Integer> notNeighborsOfV = labelClass.notNeighborsFromGOf(v);
-                List<Integer> notNeighborsOfW = labelClass.notNeighborsFromHOf(w);
-                if (!notNeighborsOfV.isEmpty() && !notNeighborsOfW.isEmpty()) {
-                    newLabelClasses.add(new LabelClass(g1, g2, notNeighborsOfV, notNeighborsOfW));
+                if (depth == rootDepth) {
+                    if (isRestarting()) {
+                        recordNogoods(rootDepth);
+                    }
+                    flushNodes();
+                    return;
                 }
+                depth--;
+                open = !stopped(depth);
             }
-            M.add(new Pair(v, w));
-            search(newLabelClasses, M);
-            M.remove(M.size() - 1);
         }
-        labelClasses.remove(selectedLabelClass);
-        if (selectedLabelClass.G.size() > 1) {
-            labelClasses.add(selectedLabelClass.copyWithoutVertexFromG(v));
+
+        /** Reports nodes expanded since the last report, so short runs and tasks count against budget too */
+        private void flushNodes() {
+            if (nodes > 0) {
+                nodesToReport = budget.report(nodes);
+                nodes = 0;
+            }
         }
-        if (!labelClasses.labelClasses.isEmpty()) {
-            search(labelClasses, M);
+
+        /** Pushes the frame of a node with label classes [from, to) */
+        private void enter(int depth, int from, int to, int pairs) {
+            this.from[depth] = from;
+            this.to[depth] = to;
+            this.count[depth] = to - from;
+            this.pairs[depth] = pairs;
+            if (refutations != null) {
+                refutations.get(depth).clear();
+            }
+            labelClasses.heapify(from, to);
         }
 
-    }
+        /**
+         * Records the mapping of the node, computes its bound and selects the
+         * vertex of G to branch on, returns false if the node is pruned or budget
+         * is used up
+         */
+        private boolean expand(int depth) {
+            if (depth > incumbent.size() && incumbent.offer(M1, M2, depth) && listener != null) {
+                listener.improved(depth);
+            }
 
-    static class LabelClass {
-        private final Graph g1;
-        private final Graph g2;
+            bound[depth] = depth + (labelClasses.isConnected() && depth > 0
+                    ? labelClasses.sumReachablePairsOfVertices(from[depth], to[depth], M1, M2, depth, problem.rows1,
+                            problem.rows2)
+                    : pairs[depth]);
+            if (bound[depth] <= incumbent.size()) {
+                if (listener != null) {
+                    listener.pruned(depth, Prune.BOUND);
+                }
+                return false;
+            }
+            // Forked tasks may start after budget ran out, their roots are then left unexplored
+            if (stopped(depth)) {
+                return false;
+            }
+            if (listener != null) {
+                listener.expanded(depth, count[depth]);
+            }
+            if (++nodes == nodesToReport) {
+                nodesToReport = budget.report(nodes);
+                nodes = 0;
+                if (checkpoints != null && checkpoints.isDue()) {
+                    saveCheckpoint(depth);
+                }
+            }
+            if (runNodes >= 0 && runNodes-- == 0) {
+                restartDepth = depth;
+                // Budget must know whether it runs out on this node before the run is aborted
+                flushNodes();
+            }
+            if (stopped(depth)) {
+                return false;
+            }
 
-        public final List<Integer> G;
-        public final List<Integer> H;
-        public final Integer maxDegreeG;
-        public final Integer maxDegreeVertexG;
+            final int labelClass = labelClasses.select(from[depth]);
+            if (labelClasses.isConnected() && depth > 0 && !labelClasses.adjacent[labelClass]) {
+                // Adjacent label classes are selected first, so no vertex can extend the mapping
+                if (listener != null) {
+                    listener.pruned(depth, Prune.DISCONNECTED);
+                }
+                return false;
+            }
+            selected[depth] = labelClass;
+            selectedPairs[depth] = Math.min(labelClasses.sizeG[labelClass], labelClasses.sizeH[labelClass]);
+            v[depth] = strategy.selectVertexFromG(labelClasses, labelClass);
+            labelClasses.removeVertexFromG(labelClass, v[depth]);
+            // Every w is tried in the order of strategy after being moved to the last slot of H,
+            // which is left out of the label class while v and w are matched
+            labelClasses.sizeH[labelClass]--;
+            w[depth] = -1;
+            branch[depth] = 0;
+            Arrays.fill(triedH[depth], 0);
+            if (depth == 0) {
+                Arrays.fill(triedOrbits2, false);
+            }
+            return true;
+        }
 
-        public LabelClass(Graph g1, Graph g2, List<Integer> G, List<Integer> H) {
-            this.g1 = g1;
-            this.g2 = g2;
-            this.G = G;
-            this.H = H;
+        /**
+         * Matches v with the next vertex of H and splits label classes, returns the
+         * end of the block of the child or -1 if all vertices of H were tried. At
+         * the root nothing is mapped yet, so an automorphism of g2 maps every
+         * subgraph matching v with w onto one matching v with any other vertex of
+         * the orbit of w, and only the first vertex of every orbit is tried.
+         */
+        private int nextBranch(int depth) {
+            final int labelClass = selected[depth];
+            while (branch[depth] <= labelClasses.sizeH[labelClass]) {
+                branch[depth]++;
+                w[depth] = strategy.moveNextVertexFromHToEnd(labelClasses, labelClass, w[depth], triedH[depth]);
+                Bitsets.add(triedH[depth], w[depth]);
+                if (depth == 0) {
+                    final int orbit = problem.orbits2.orbit[w[depth]];
+                    if (triedOrbits2[orbit]) {
+                        continue;
+                    }
+                    triedOrbits2[orbit] = true;
+                }
+                M1[depth] = v[depth];
+                M2[depth] = w[depth];
+                if (nogoods != null) {
+                    depthOf[v[depth]] = depth;
+                    if (nogoods.isRefuted(M1, M2, depthOf, depth)) {
+                        if (listener != null) {
+                            listener.pruned(depth + 1, Prune.NOGOOD);
+                        }
+                        continue;
+                    }
+                }
+                return labelClasses.split(from[depth], to[depth], problem.labelRows1[v[depth]],
+                        problem.labelRows2[w[depth]]);
+            }
+            return -1;
+        }
 
-            if (G.isEmpty()) {
-                this.maxDegreeG = null;
-                this.maxDegreeVertexG = null;
+        /**
+         * Continues without v, returns false if no label classes are left. At the
+         * root every subgraph matching a vertex of the orbit of v is mapped by an
+         * automorphism of g1 onto one matching v, which was already searched, so
+         * the whole orbit is left out.
+         */
+        private boolean skip(int depth) {
+            final int labelClass = selected[depth];
+            final int sizeH = ++labelClasses.sizeH[labelClass];
+            if (refutations != null) {
+                refutations.get(depth).add(new Refutation(v[depth], triedH[depth].clone()));
+            }
+            if (depth == 0) {
+                labelClasses.removeOrbitFromG(labelClass, problem.orbits1.orbit, problem.orbits1.orbit[v[depth]]);
+            }
+            pairs[depth] -= selectedPairs[depth] - Math.min(labelClasses.sizeG[labelClass], sizeH);
+            if (labelClasses.sizeG[labelClass] == 0) {
+                labelClasses.remove(from[depth], count[depth]--);
             } else {
-                int maxDegreeG = g1.degreeOf(G.get(0));
-                int maxDegreeVertexG = G.get(0);
-                for (int i = 1; i < G.size(); i++) {
-                    int degree = g1.degreeOf(G.get(i));
-                    if (degree > maxDegreeG) {
-                        maxDegreeG = degree;
-                        maxDegreeVertexG = G.get(i);
-                    }
+                to[depth] = labelClasses.moveToEnd(from[depth], count[depth], to[depth]);
+            }
+            return count[depth] > 0;
+        }
+
+        /**
+         * Reports bound of the node if budget is used up, which is checked before
+         * the restart exit, as a run may be aborted on the node budget ran out
+         */
+        private boolean stopped(int depth) {
+            if (incumbent.isTargetReached()) {
+                return true;
+            }
+            if (budget.isStopped()) {
+                budget.reportBound(bound[depth]);
+                if (checkpoints != null) {
+                    // Only the deepest node knows the whole path, frames above it close without saving
+                    saveCheckpoint(depth);
+                    checkpoints = null;
                 }
-                this.maxDegreeG = maxDegreeG;
-                this.maxDegreeVertexG = maxDegreeVertexG;
+                return true;
             }
+            return isRestarting();
         }
 
-        public LabelClass copyWithoutVertexFromG(int vertex) {
-            return new LabelClass(g1, g2, G.stream().filter(v -> v != vertex).collect(Collectors.toList()), H);
+        /**
+         * Records nogoods of the path the run was aborted on. Every frame above
+         * the aborted node refuted all vertices of G it skipped, and the vertex it
+         * branches on with all vertices of H tried before the one in progress,
+         * given the pairs of the frames above it.
+         */
+        private void recordNogoods(int rootDepth) {
+            addNogoodsOfPath(nogoods, rootDepth, restartDepth);
         }
 
-        public int selectVertexFromG() {
-            return maxDegreeVertexG;
+        /**
+         * Saves nogoods of the search so far and of the path from the root to the
+         * node at depth, whose own branches are not refuted yet, with the
+         * incumbent they hold for
+         */
+        private void saveCheckpoint(int depth) {
+            final Nogoods snapshot = nogoods.copy();
+            addNogoodsOfPath(snapshot, 0, depth);
+            checkpoints.save(incumbent.pairs(), snapshot, false);
         }
 
-        public List<Integer> neighborsFromGOf(int vertex) {
-            return G.stream().filter(v -> g1.M[vertex][v] == 1).collect(Collectors.toList());
+        private void addNogoodsOfPath(Nogoods nogoods, int rootDepth, int lastDepth) {
+            for (int depth = rootDepth; depth <= lastDepth; depth++) {
+                for (Refutation refutation : refutations.get(depth)) {
+                    nogoods.add(M1, M2, depth, refutation.vertex, refutation.values);
+                }
+                if (depth < lastDepth) {
+                    final long[] values = triedH[depth].clone();
+                    values[w[depth] >>> 6] &= ~(1L << w[depth]);
+                    if (Bitsets.cardinality(values) > 0) {
+                        nogoods.add(M1, M2, depth, v[depth], values);
+                    }
+                }
+            }
         }
 
-        public List<Integer> neighborsFromHOf(int vertex) {
-            return H.stream().filter(v -> g2.M[vertex][v] == 1).collect(Collectors.toList());
+        /**
+         * Gives a child node away to be searched elsewhere, returns false if it
+         * should be searched in place
+         */
+        boolean offload(int from, int to, int depth) {
+            return false;
         }
+    }
 
-        public List<Integer> notNeighborsFromGOf(int vertex) {
-            return G.stream().filter(v -> v != vertex && g1.M[vertex][v] == 0).collect(Collectors.toList());
+    /** Vertex of G skipped by a frame and the vertices of H it was tried with */
+    private static class Refutation {
+        final int vertex;
+        final long[] values;
+
+        Refutation(int vertex, long[] values) {
+            this.vertex = vertex;
+            this.values = values;
         }
+    }
 
-        public List<Integer> notNeighborsFromHOf(int vertex) {
-            return H.stream().filter(v -> v != vertex && g2.M[vertex][v] == 0).collect(Collectors.toList());
+    /**
+     * Searches a subtree on a fork-join pool. Branches of the root are always
+     * forked, deeper ones only while the worker has few queued tasks that idle
+     * workers could steal. Every task works on its own copy of label classes and
+     * all of them prune against the same incumbent.
+     */
+    static class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        /** Children of nodes shallower than this are always forked */
+        private static final int SPLIT_DEPTH = 1;
+        /** Deeper children are forked while the worker has at most that many queued tasks */
+        private static final int SURPLUS_THRESHOLD = 2;
+
+        private final Problem problem;
+        private final LabelClasses labelClasses;
+        private final BranchingStrategy strategy;
+        private final int[] M1;
+        private final int[] M2;
+        private final int depth;
+        private final Incumbent incumbent;
+        private final Budget budget;
+        private final SearchListener listener;
+
+        public SearchTask(Problem problem, LabelClasses labelClasses, BranchingStrategy strategy, int[] M1,
+                int[] M2, int depth, Incumbent incumbent, Budget budget, SearchListener listener) {
+            this.problem = problem;
+            this.labelClasses = labelClasses;
+            this.strategy = strategy;
+            this.M1 = M1;
+            this.M2 = M2;
+            this.depth = depth;
+            this.incumbent = incumbent;
+            this.budget = budget;
+            this.listener = listener;
         }
 
         @Override
-        public String toString() {
-            return "LabelClass [G=" + G + ", H=" + H + "]";
+        protected void compute() {
+            final List<SearchTask> forked = new ArrayList<>();
+            final Search search = new Search(problem, labelClasses, strategy, M1, M2, incumbent, budget) {
+                @Override
+                boolean offload(int from, int to, int childDepth) {
+                    if (childDepth > SPLIT_DEPTH && getSurplusQueuedTaskCount() > SURPLUS_THRESHOLD) {
+                        return false;
+                    }
+                    final SearchTask task = new SearchTask(problem, labelClasses.copyOf(from, to), strategy.copy(),
+                            M1.clone(), M2.clone(), childDepth, incumbent, budget, listener);
+                    task.fork();
+                    forked.add(task);
+                    return true;
+                }
+            }.withListener(listener);
+            search.search(0, labelClasses.size, depth);
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
         }
     }
 
+    /**
+     * Label classes of all search nodes on the current path. Vertices of g1 and
+     * g2 are kept in two shared arrays, G and H, and each label class is a range
+     * of both of them. Label classes are records of parallel arrays used as a
+     * stack, where every search node owns a contiguous block of records placed
+     * right after the block of its parent. Splitting a label class partitions its
+     * ranges in place, so children never need to restore the order of vertices
+     * and backtracking only drops their records. Partitioning costs the size of
+     * a class rather than the words of a bitset of it, which is cheaper deep in
+     * the tree, where most nodes hold many small classes.
+     *
+     * Every block also keeps a binary heap of its live records in the same range
+     * of {@link #heap}, ordered the way label classes are selected. Moving a
+     * record to the end of its block appends a copy of it and empties the
+     * original, so the order of live records is still the order of the list in
+     * the original implementation and no record is ever shifted.
+     */
     static class LabelClasses {
-        public final List<LabelClass> labelClasses;
+        private final int[] degreesG;
 
-        public LabelClasses(List<LabelClass> labelClasses) {
-            this.labelClasses = labelClasses;
-        }
+        public final int[] G;
+        public final int[] H;
+
+        public int[] startG;
+        public int[] sizeG;
+        public int[] startH;
+        public int[] sizeH;
+        public int[] maxDegreeG;
+        public int[] maxDegreeVertexG;
+        /** Whether vertices of the label class are adjacent to the mapping in the original graphs */
+        public boolean[] adjacent;
+        /** Heaps of records, the heap of block starting at from is kept at heap[from, from + count) */
+        public int[] heap;
+        /** Number of records in use */
+        public int size;
 
-        public static LabelClasses empty() {
-            return new LabelClasses(new ArrayList<>());
+        /** Whether only adjacent label classes may be branched on once something is matched */
+        private boolean connected = false;
+        /** Whether neighbors in the searched graphs are neighbors in the original ones, false for complements */
+        private boolean neighborsAdjacent = true;
+        /** Scratch space of {@link #sumReachablePairsOfVertices} */
+        private long[] candidates;
+        private long[] reachedG;
+        private long[] reachedH;
+        private int[] queue;
+
+        public LabelClasses(int[] degreesG, int[] G, int[] H, int capacity) {
+            this.degreesG = degreesG;
+            this.G = G;
+            this.H = H;
+            this.startG = new int[capacity];
+            this.sizeG = new int[capacity];
+            this.startH = new int[capacity];
+            this.sizeH = new int[capacity];
+            this.maxDegreeG = new int[capacity];
+            this.maxDegreeVertexG = new int[capacity];
+            this.adjacent = new boolean[capacity];
+            this.heap = new int[capacity];
+            this.size = 0;
         }
 
         public static LabelClasses from(Graph g1, Graph g2) {
-            List<Integer> G = IntStream.range(0, g1.n).boxed().collect(Collectors.toList());
-            List<Integer> H = IntStream.range(0, g2.n).boxed().collect(Collectors.toList());
-            return new LabelClasses(newArrayList(new LabelClass(g1, g2, G, H)));
+            final int n1 = g1.n;
+            final int n2 = g2.n;
+            final int[] G = new int[n1];
+            for (int v = 0; v < n1; v++) {
+                G[v] = v;
+            }
+            final int[] H = new int[n2];
+            for (int w = 0; w < n2; w++) {
+                H[w] = w;
+            }
+
+            // Vertices sorted by label, unlabelled graphs keep their order and a single label class
+            final int[] labelsG = g1.vertexLabels;
+            final int[] labelsH = g2.vertexLabels;
+            final int[] sortedG = Arrays.stream(G).boxed().sorted(Comparator.comparingInt(v -> labelsG[v]))
+                    .mapToInt(Integer::intValue).toArray();
+            final int[] sortedH = Arrays.stream(H).boxed().sorted(Comparator.comparingInt(w -> labelsH[w]))
+                    .mapToInt(Integer::intValue).toArray();
+
+            final LabelClasses labelClasses = new LabelClasses(g1.degrees, sortedG, sortedH,
+                    4 * (Math.min(n1, n2) + 1));
+            int startG = 0;
+            int startH = 0;
+            while (startG < n1 && startH < n2) {
+                final int labelG = labelsG[sortedG[startG]];
+                final int labelH = labelsH[sortedH[startH]];
+                int endG = startG;
+                int endH = startH;
+                while (endG < n1 && labelsG[sortedG[endG]] == Math.min(labelG, labelH)) {
+                    endG++;
+                }
+                while (endH < n2 && labelsH[sortedH[endH]] == Math.min(labelG, labelH)) {
+                    endH++;
+                }
+                if (labelG == labelH) {
+                    labelClasses.add(startG, endG - startG, startH, endH - startH);
+                }
+                startG = endG;
+                startH = endH;
+            }
+            return labelClasses;
         }
 
-        public void add(LabelClass labelClass) {
-            labelClasses.add(labelClass);
+        /**
+         * Restricts the search to connected common subgraphs, complement tells
+         * whether the graphs are searched as their complements
+         */
+        public void connect(boolean complement) {
+            this.connected = true;
+            this.neighborsAdjacent = !complement;
+        }
+
+        public boolean isConnected() {
+            return connected;
         }
 
-        public void remove(LabelClass labelClass) {
-            if (!labelClasses.remove(labelClass)) {
-                throw new RuntimeException(format("Unable to remove label class %s!", labelClass));
+        /**
+         * Creates label classes holding only non-empty records [from, to), with
+         * their vertices copied to new arrays
+         */
+        public LabelClasses copyOf(int from, int to) {
+            int totalG = 0;
+            int totalH = 0;
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                totalG += sizeG[labelClass];
+                totalH += sizeH[labelClass];
+            }
+            final LabelClasses copy = new LabelClasses(degreesG, new int[totalG], new int[totalH],
+                    4 * (Math.min(totalG, totalH) + 1));
+            copy.connected = connected;
+            copy.neighborsAdjacent = neighborsAdjacent;
+            int startG = 0;
+            int startH = 0;
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                if (sizeG[labelClass] == 0) {
+                    continue;
+                }
+                System.arraycopy(G, this.startG[labelClass], copy.G, startG, sizeG[labelClass]);
+                System.arraycopy(H, this.startH[labelClass], copy.H, startH, sizeH[labelClass]);
+                copy.add(startG, sizeG[labelClass], startH, sizeH[labelClass], adjacent[labelClass]);
+                startG += sizeG[labelClass];
+                startH += sizeH[labelClass];
             }
+            return copy;
         }
 
-        public int sumPairsOfVertices() {
+        /** Pushes a new record on top of the stack and returns its index */
+        public int add(int startG, int sizeG, int startH, int sizeH) {
+            return add(startG, sizeG, startH, sizeH, false);
+        }
+
+        public int add(int startG, int sizeG, int startH, int sizeH, boolean adjacent) {
+            if (size == this.startG.length) {
+                grow();
+            }
+            final int labelClass = size++;
+            this.startG[labelClass] = startG;
+            this.sizeG[labelClass] = sizeG;
+            this.startH[labelClass] = startH;
+            this.sizeH[labelClass] = sizeH;
+            this.adjacent[labelClass] = adjacent;
+            updateMaxDegree(labelClass);
+            return labelClass;
+        }
+
+        /**
+         * Splits every label class from records [from, to) into neighbors and not
+         * neighbors of the matched vertices, given as their rows of bits.
+         * Non-empty halves are pushed as records right after to, in the same order
+         * as in the original implementation, and the new end of the stack is
+         * returned.
+         */
+        public int split(int from, int to, long[] rowG, long[] rowH) {
+            return split(from, to, new long[][] { rowG }, new long[][] { rowH });
+        }
+
+        /**
+         * Splits every label class from records [from, to) into neighbors joined
+         * to the matched vertices by an edge of every label in turn, given as
+         * their rows of bits by label, and the vertices that are not neighbors
+         */
+        public int split(int from, int to, long[][] rowsG, long[][] rowsH) {
+            size = to;
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                int startG = this.startG[labelClass];
+                int sizeG = this.sizeG[labelClass];
+                if (sizeG == 0) {
+                    continue;
+                }
+                int startH = this.startH[labelClass];
+                int sizeH = this.sizeH[labelClass];
+                for (int label = 0; label < rowsG.length; label++) {
+                    final int neighborsG = partition(G, startG, sizeG, rowsG[label]);
+                    final int neighborsH = partition(H, startH, sizeH, rowsH[label]);
+                    if (neighborsG > 0 && neighborsH > 0) {
+                        add(startG, neighborsG, startH, neighborsH, adjacent[labelClass] || neighborsAdjacent);
+                    }
+                    startG += neighborsG;
+                    sizeG -= neighborsG;
+                    startH += neighborsH;
+                    sizeH -= neighborsH;
+                }
+                if (sizeG > 0 && sizeH > 0) {
+                    add(startG, sizeG, startH, sizeH, adjacent[labelClass] || !neighborsAdjacent);
+                }
+            }
+            return size;
+        }
+
+        public int sumPairsOfVertices(int from, int to) {
             int sum = 0;
-            for (LabelClass labelClass : labelClasses) {
-                sum += Math.min(labelClass.G.size(), labelClass.H.size());
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                sum += Math.min(sizeG[labelClass], sizeH[labelClass]);
             }
             return sum;
         }
 
         /**
-         * Selects a label class with the smallest max(|G|,|H|) and breaks ties by
-         * selecting a class containing a vertex in G with the largest degree
+         * Sum of min(|G|,|H|) over label classes [from, to) counting only vertices
+         * connected to the first depth matched vertices of M1 and M2 by paths
+         * through vertices of these label classes in the original graphs, as no
+         * other vertex can be added to a connected mapping
          */
-        public LabelClass select() {
-            // TODO: Speed up
-            LabelClass best = labelClasses.get(0);
-            int maxVerticesBest = Math.max(best.G.size(), best.H.size());
-            for (LabelClass labelClass : labelClasses) {
-                int maxVerticesLabelClass = Math.max(labelClass.G.size(), labelClass.H.size());
-                if (maxVerticesBest < maxVerticesLabelClass) {
-                    best = labelClass;
-                    maxVerticesBest = maxVerticesLabelClass;
-                } else if (maxVerticesLabelClass == maxVerticesBest) {
-                    if (best.maxDegreeG < labelClass.maxDegreeG) {
-                        best = labelClass;
-                        maxVerticesBest = maxVerticesLabelClass;
+        public int sumReachablePairsOfVertices(int from, int to, int[] M1, int[] M2, int depth, long[][] rows1,
+                long[][] rows2) {
+            if (queue == null) {
+                candidates = new long[Bitsets.words(Math.max(rows1.length, rows2.length))];
+                reachedG = new long[Bitsets.words(rows1.length)];
+                reachedH = new long[Bitsets.words(rows2.length)];
+                queue = new int[Math.max(rows1.length, rows2.length)];
+            }
+            reach(G, startG, sizeG, from, to, M1, depth, rows1, reachedG);
+            reach(H, startH, sizeH, from, to, M2, depth, rows2, reachedH);
+            int sum = 0;
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                int g = 0;
+                for (int i = startG[labelClass]; i < startG[labelClass] + sizeG[labelClass]; i++) {
+                    if (Bitsets.contains(reachedG, G[i])) {
+                        g++;
+                    }
+                }
+                int h = 0;
+                for (int i = startH[labelClass]; i < startH[labelClass] + sizeH[labelClass]; i++) {
+                    if (Bitsets.contains(reachedH, H[i])) {
+                        h++;
+                    }
+                }
+                sum += Math.min(g, h);
+            }
+            return sum;
+        }
+
+        /** Finds vertices of label classes [from, to) reachable from matched ones by breadth-first search */
+        private void reach(int[] vertices, int[] start, int[] size, int from, int to, int[] matched, int depth,
+                long[][] rows, long[] reached) {
+            final int words = reached.length;
+            Arrays.fill(candidates, 0);
+            Arrays.fill(reached, 0);
+            for (int labelClass = from; labelClass < to; labelClass++) {
+                for (int i = start[labelClass]; i < start[labelClass] + size[labelClass]; i++) {
+                    Bitsets.add(candidates, vertices[i]);
+                }
+            }
+
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < depth; i++) {
+                queue[tail++] = matched[i];
+            }
+            while (head < tail) {
+                final long[] row = rows[queue[head++]];
+                for (int word = 0; word < words; word++) {
+                    // Matched vertices are never candidates, so complemented rows may include the vertex itself
+                    long next = candidates[word] & (neighborsAdjacent ? row[word] : ~row[word]) & ~reached[word];
+                    reached[word] |= next;
+                    while (next != 0) {
+                        queue[tail++] = (word << 6) + Long.numberOfTrailingZeros(next);
+                        next &= next - 1;
                     }
                 }
             }
-            return best;
+        }
+
+        /** Builds the heap of block [from, to), all of whose records must be non-empty */
+        public void heapify(int from, int to) {
+            final int count = to - from;
+            for (int i = 0; i < count; i++) {
+                heap[from + i] = from + i;
+            }
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(from, count, i);
+            }
+        }
+
+        /**
+         * Selects a label class with the largest max(|G|,|H|) and breaks ties by
+         * selecting a class containing a vertex in G with the largest degree, and
+         * then by selecting the first one, from the heap of block starting at from
+         */
+        public int select(int from) {
+            return heap[from];
+        }
+
+        /** Removes the selected record from the heap of count records of block starting at from */
+        public void remove(int from, int count) {
+            sizeG[heap[from]] = 0;
+            sizeH[heap[from]] = 0;
+            heap[from] = heap[from + count - 1];
+            siftDown(from, count - 1, 0);
+        }
+
+        /**
+         * Moves the selected record of block [from, to) to its end by appending a
+         * copy of it with its max degree vertex updated, and returns the new end of
+         * the block
+         */
+        public int moveToEnd(int from, int count, int to) {
+            final int labelClass = heap[from];
+            size = to;
+            add(startG[labelClass], sizeG[labelClass], startH[labelClass], sizeH[labelClass], adjacent[labelClass]);
+            sizeG[labelClass] = 0;
+            sizeH[labelClass] = 0;
+            heap[from] = to;
+            siftDown(from, count, 0);
+            return size;
+        }
+
+        public int selectVertexFromG(int labelClass) {
+            return maxDegreeVertexG[labelClass];
+        }
+
+        /** Moves vertex to the slot right after the range of G, which shrinks by one */
+        public void removeVertexFromG(int labelClass, int vertex) {
+            final int last = startG[labelClass] + sizeG[labelClass] - 1;
+            for (int i = startG[labelClass]; i <= last; i++) {
+                if (G[i] == vertex) {
+                    swap(G, i, last);
+                    break;
+                }
+            }
+            sizeG[labelClass]--;
+        }
+
+        /** Removes every vertex of the given orbit from G */
+        public void removeOrbitFromG(int labelClass, int[] orbits, int orbit) {
+            int i = startG[labelClass];
+            while (i < startG[labelClass] + sizeG[labelClass]) {
+                if (orbits[G[i]] == orbit) {
+                    swap(G, i, startG[labelClass] + --sizeG[labelClass]);
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Finds the smallest vertex bigger than previous among H and one slot right
+         * after it, and moves it to that slot
+         */
+        public int moveNextVertexFromHToEnd(int labelClass, int previous) {
+            final int start = startH[labelClass];
+            final int last = start + sizeH[labelClass];
+            int next = -1;
+            for (int i = start; i <= last; i++) {
+                if (H[i] > previous && (next == -1 || H[i] < H[next])) {
+                    next = i;
+                }
+            }
+            swap(H, next, last);
+            return H[last];
+        }
+
+        public int degreeOfG(int vertex) {
+            return degreesG[vertex];
+        }
+
+        /** Swaps two slots of H */
+        public void swapH(int i, int j) {
+            swap(H, i, j);
+        }
+
+        /**
+         * Computes the vertex of G with the largest degree, ties are broken by the
+         * smallest index of vertex
+         */
+        public void updateMaxDegree(int labelClass) {
+            int maxDegree = -1;
+            int maxDegreeVertex = -1;
+            final int end = startG[labelClass] + sizeG[labelClass];
+            for (int i = startG[labelClass]; i < end; i++) {
+                final int vertex = G[i];
+                final int degree = degreesG[vertex];
+                if (degree > maxDegree || (degree == maxDegree && vertex < maxDegreeVertex)) {
+                    maxDegree = degree;
+                    maxDegreeVertex = vertex;
+                }
+            }
+            maxDegreeG[labelClass] = maxDegree;
+            maxDegreeVertexG[labelClass] = maxDegreeVertex;
+        }
+
+        public List<Integer> verticesOfG(int labelClass) {
+            return toList(G, startG[labelClass], sizeG[labelClass]);
+        }
+
+        public List<Integer> verticesOfH(int labelClass) {
+            return toList(H, startH[labelClass], sizeH[labelClass]);
+        }
+
+        private void siftDown(int from, int count, int i) {
+            final int labelClass = heap[from + i];
+            while (2 * i + 1 < count) {
+                int child = 2 * i + 1;
+                if (child + 1 < count && isSelectedBefore(heap[from + child + 1], heap[from + child])) {
+                    child++;
+                }
+                if (!isSelectedBefore(heap[from + child], labelClass)) {
+                    break;
+                }
+                heap[from + i] = heap[from + child];
+                i = child;
+            }
+            heap[from + i] = labelClass;
+        }
+
+        private boolean isSelectedBefore(int labelClass, int other) {
+            if (connected && adjacent[labelClass] != adjacent[other]) {
+                return adjacent[labelClass];
+            }
+            final int maxVertices = Math.max(sizeG[labelClass], sizeH[labelClass]);
+            final int maxVerticesOther = Math.max(sizeG[other], sizeH[other]);
+            if (maxVertices != maxVerticesOther) {
+                return maxVertices > maxVerticesOther;
+            }
+            if (maxDegreeG[labelClass] != maxDegreeG[other]) {
+                return maxDegreeG[labelClass] > maxDegreeG[other];
+            }
+            return labelClass < other;
+        }
+
+        private void grow() {
+            final int capacity = 2 * startG.length;
+            startG = Arrays.copyOf(startG, capacity);
+            sizeG = Arrays.copyOf(sizeG, capacity);
+            startH = Arrays.copyOf(startH, capacity);
+            sizeH = Arrays.copyOf(sizeH, capacity);
+            maxDegreeG = Arrays.copyOf(maxDegreeG, capacity);
+            maxDegreeVertexG = Arrays.copyOf(maxDegreeVertexG, capacity);
+            adjacent = Arrays.copyOf(adjacent, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+
+        /** Moves neighbors to the front of the range and returns their number */
+        private static int partition(int[] vertices, int start, int size, long[] row) {
+            int neighbors = start;
+            for (int i = start; i < start + size; i++) {
+                if (Bitsets.contains(row, vertices[i])) {
+                    swap(vertices, neighbors++, i);
+                }
+            }
+            return neighbors - start;
+        }
+
+        private static void swap(int[] vertices, int i, int j) {
+            final int tmp = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = tmp;
+        }
+
+        private static List<Integer> toList(int[] vertices, int start, int size) {
+            final List<Integer> result = new ArrayList<>(size);
+            for (int i = start; i < start + size; i++) {
+                result.add(vertices[i]);
+            }
+            return result;
         }
 
         @Override
         public String toString() {
-            return "LabelClasses [labelClasses=" + labelClasses + "]";
+            final StringBuilder builder = new StringBuilder("LabelClasses [");
+            for (int labelClass = 0; labelClass < size; labelClass++) {
+                if (labelClass > 0) {
+                    builder.append(", ");
+                }
+                builder.append("[G=").append(verticesOfG(labelClass)).append(", H=").append(verticesOfH(labelClass))
+                        .append("]");
+            }
+            return builder.append("]").toString();
         }
     }
 }
@@ -9,6 +9,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Builds a common supergraph of two graphs around their common subgraph,
+ * computed by the given algorithm. With McSplit in connected mode the shared
+ * part of the supergraph is connected.
+ */
 public class MinimumCommonSupergraphAlgorithm {
     private final MaximumCommonSubgraphAlgorithm maximumCommonSubgraphAlgorithm;
 
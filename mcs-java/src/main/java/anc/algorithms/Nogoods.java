@@ -0,0 +1,148 @@
+package anc.algorithms;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parts of the search tree that a restarted McSplit run already refuted. Every
+ * nogood says that no mapping containing all pairs of its prefix and matching
+ * its vertex of g1 with one of its values is bigger than the incumbent, so a
+ * later run never branches into it again. Only pairs are recorded, vertices
+ * left unmatched by skipping are not, which is sound because every mapping
+ * matching a skipped vertex is refuted by the nogoods recorded for it.
+ */
+class Nogoods {
+    private final int n1;
+    private final int n2;
+    /** All nogoods in the order they were added */
+    private final List<Nogood> all = new ArrayList<>();
+    /** Nogoods whose vertex is v of g1 */
+    private final List<List<Nogood>> byVertex;
+    /** Nogoods with pair (v, w) in the prefix, keyed by v * n2 + w */
+    private final Map<Integer, List<Nogood>> byPrefixPair = new HashMap<>();
+
+    public Nogoods(int n1, int n2) {
+        this.n1 = n1;
+        this.n2 = n2;
+        this.byVertex = new ArrayList<>(n1);
+        for (int v = 0; v < n1; v++) {
+            byVertex.add(new ArrayList<>());
+        }
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /** Records that the first depth pairs of M1/M2 and vertex matched with any of values have no better extension */
+    public void add(int[] M1, int[] M2, int depth, int vertex, long[] values) {
+        add(new Nogood(Arrays.copyOf(M1, depth), Arrays.copyOf(M2, depth), vertex, values));
+    }
+
+    private void add(Nogood nogood) {
+        for (int i = 0; i < nogood.prefix1.length; i++) {
+            byPrefixPair.computeIfAbsent(nogood.prefix1[i] * n2 + nogood.prefix2[i], key -> new ArrayList<>())
+                    .add(nogood);
+        }
+        byVertex.get(nogood.vertex).add(nogood);
+        all.add(nogood);
+    }
+
+    /** Nogoods never change once added, so the copy shares them */
+    public Nogoods copy() {
+        final Nogoods copy = new Nogoods(n1, n2);
+        all.forEach(copy::add);
+        return copy;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(all.size());
+        for (Nogood nogood : all) {
+            out.writeInt(nogood.prefix1.length);
+            for (int i = 0; i < nogood.prefix1.length; i++) {
+                out.writeInt(nogood.prefix1[i]);
+                out.writeInt(nogood.prefix2[i]);
+            }
+            out.writeInt(nogood.vertex);
+            out.writeInt(nogood.values.length);
+            for (long word : nogood.values) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    public static Nogoods read(DataInputStream in, int n1, int n2) throws IOException {
+        final Nogoods nogoods = new Nogoods(n1, n2);
+        final int size = in.readInt();
+        for (int nogood = 0; nogood < size; nogood++) {
+            final int depth = in.readInt();
+            final int[] prefix1 = new int[depth];
+            final int[] prefix2 = new int[depth];
+            for (int i = 0; i < depth; i++) {
+                prefix1[i] = in.readInt();
+                prefix2[i] = in.readInt();
+            }
+            final int vertex = in.readInt();
+            final long[] values = new long[in.readInt()];
+            for (int word = 0; word < values.length; word++) {
+                values[word] = in.readLong();
+            }
+            nogoods.add(new Nogood(prefix1, prefix2, vertex, values));
+        }
+        return nogoods;
+    }
+
+    /**
+     * Returns true if the mapping made of the first depth + 1 pairs of M1/M2 is
+     * refuted by a nogood, which must then involve its last pair. Depth of
+     * vertex holds the index of the pair of every vertex of g1 in M1, entries of
+     * unmatched vertices may be anything.
+     */
+    public boolean isRefuted(int[] M1, int[] M2, int[] depthOf, int depth) {
+        for (Nogood nogood : byVertex.get(M1[depth])) {
+            if (Bitsets.contains(nogood.values, M2[depth]) && isRefutedBy(nogood, M1, M2, depthOf, depth)) {
+                return true;
+            }
+        }
+        final List<Nogood> withPair = byPrefixPair.get(M1[depth] * n2 + M2[depth]);
+        if (withPair != null) {
+            for (Nogood nogood : withPair) {
+                if (isRefutedBy(nogood, M1, M2, depthOf, depth)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRefutedBy(Nogood nogood, int[] M1, int[] M2, int[] depthOf, int depth) {
+        for (int i = 0; i < nogood.prefix1.length; i++) {
+            final int d = depthOf[nogood.prefix1[i]];
+            if (d > depth || M1[d] != nogood.prefix1[i] || M2[d] != nogood.prefix2[i]) {
+                return false;
+            }
+        }
+        final int d = depthOf[nogood.vertex];
+        return d <= depth && M1[d] == nogood.vertex && Bitsets.contains(nogood.values, M2[d]);
+    }
+
+    private static class Nogood {
+        final int[] prefix1;
+        final int[] prefix2;
+        final int vertex;
+        final long[] values;
+
+        Nogood(int[] prefix1, int[] prefix2, int vertex, long[] values) {
+            this.prefix1 = prefix1;
+            this.prefix2 = prefix2;
+            this.vertex = vertex;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package anc.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import anc.models.Graph;
+
+/**
+ * Partition of vertices of a graph into orbits of its automorphism group.
+ * Candidates are cells of colour refinement, and two vertices are put in the
+ * same orbit only once an automorphism mapping one onto the other is found, so
+ * the partition may be finer than the true one when the search for an
+ * automorphism gives up, but vertices of one orbit are always symmetric.
+ */
+class Orbits {
+    /** All automorphism searches together give up after that many nodes per vertex */
+    private static final int NODES_PER_VERTEX = 16;
+
+    /** Orbit of every vertex, identified by its smallest vertex */
+    public final int[] orbit;
+
+    private Orbits(int[] orbit) {
+        this.orbit = orbit;
+    }
+
+    /** Every vertex in its own orbit */
+    public static Orbits trivial(int n) {
+        final int[] orbit = new int[n];
+        for (int v = 0; v < n; v++) {
+            orbit[v] = v;
+        }
+        return new Orbits(orbit);
+    }
+
+    public static Orbits of(Graph g) {
+        final int[] parent = trivial(g.n).orbit;
+        // Only vertices of the same label may be symmetric
+        final int[] colours = g.vertexLabels.clone();
+        refine(g, colours, null);
+
+        // Every vertex is compared with the first vertex of its cell
+        final int[] firstOfColour = new int[g.n];
+        Arrays.fill(firstOfColour, -1);
+        final int[] nodes = new int[] { NODES_PER_VERTEX * g.n };
+        for (int w = 0; w < g.n && nodes[0] > 0; w++) {
+            final int u = firstOfColour[colours[w]];
+            if (u == -1) {
+                firstOfColour[colours[w]] = w;
+                continue;
+            }
+            if (find(parent, w) == find(parent, u)) {
+                continue;
+            }
+            final int[] a = colours.clone();
+            final int[] b = colours.clone();
+            a[u] = g.n;
+            b[w] = g.n;
+            final int[] automorphism = findAutomorphism(g, a, b, nodes);
+            if (automorphism != null) {
+                for (int v = 0; v < g.n; v++) {
+                    union(parent, v, automorphism[v]);
+                }
+            }
+        }
+
+        final int[] orbit = new int[g.n];
+        for (int v = 0; v < g.n; v++) {
+            orbit[v] = find(parent, v);
+        }
+        return new Orbits(orbit);
+    }
+
+    /**
+     * Searches for an automorphism mapping every vertex coloured c in a onto a
+     * vertex coloured c in b, by individualizing vertices of the first
+     * non-singleton cell one by one. Returns null if there is none or if nodes
+     * run out.
+     */
+    private static int[] findAutomorphism(Graph g, int[] a, int[] b, int[] nodes) {
+        if (nodes[0]-- <= 0 || !refine(g, a, b)) {
+            return null;
+        }
+
+        final int[] cellSizes = new int[g.n + 1];
+        for (int v = 0; v < g.n; v++) {
+            cellSizes[a[v]]++;
+        }
+        int cell = -1;
+        for (int c = 0; c < cellSizes.length && cell == -1; c++) {
+            if (cellSizes[c] > 1) {
+                cell = c;
+            }
+        }
+
+        if (cell == -1) {
+            final int[] vertexOfColourB = new int[g.n];
+            for (int v = 0; v < g.n; v++) {
+                vertexOfColourB[b[v]] = v;
+            }
+            final int[] automorphism = new int[g.n];
+            for (int v = 0; v < g.n; v++) {
+                automorphism[v] = vertexOfColourB[a[v]];
+            }
+            return isAutomorphism(g, automorphism) ? automorphism : null;
+        }
+
+        int x = 0;
+        while (a[x] != cell) {
+            x++;
+        }
+        // Trying x itself first finds the identity on parts that are already matched
+        final List<Integer> candidates = new ArrayList<>();
+        if (b[x] == cell) {
+            candidates.add(x);
+        }
+        for (int y = 0; y < g.n; y++) {
+            if (b[y] == cell && y != x) {
+                candidates.add(y);
+            }
+        }
+        for (int y : candidates) {
+            final int[] individualizedA = a.clone();
+            final int[] individualizedB = b.clone();
+            individualizedA[x] = g.n;
+            individualizedB[y] = g.n;
+            final int[] automorphism = findAutomorphism(g, individualizedA, individualizedB, nodes);
+            if (automorphism != null) {
+                return automorphism;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Refines colourings a and b, if given, until every two vertices of the same
+     * colour have the same number of neighbours of every colour. Colours are
+     * renumbered from 0 in the same way for both colourings, so they stay
+     * comparable. Returns false if the colourings stop having cells of the same
+     * sizes.
+     */
+    static boolean refine(Graph g, int[] a, int[] b) {
+        int nColours = -1;
+        while (true) {
+            final TreeMap<int[], Integer> signatures = new TreeMap<>(Orbits::compare);
+            final int[][] signaturesA = signatures(g, a);
+            final int[][] signaturesB = b == null ? new int[0][] : signatures(g, b);
+            for (int[] signature : signaturesA) {
+                signatures.put(signature, 0);
+            }
+            for (int[] signature : signaturesB) {
+                signatures.put(signature, 0);
+            }
+            int colour = 0;
+            for (int[] signature : signatures.keySet()) {
+                signatures.put(signature, colour++);
+            }
+
+            final int[] cellSizes = new int[signatures.size()];
+            for (int v = 0; v < g.n; v++) {
+                a[v] = signatures.get(signaturesA[v]);
+                cellSizes[a[v]]++;
+            }
+            if (b != null) {
+                for (int v = 0; v < g.n; v++) {
+                    b[v] = signatures.get(signaturesB[v]);
+                    if (--cellSizes[b[v]] < 0) {
+                        return false;
+                    }
+                }
+            }
+            if (signatures.size() == nColours) {
+                return true;
+            }
+            nColours = signatures.size();
+        }
+    }
+
+    /** Signature of a vertex is its colour followed by sorted colours of its neighbors */
+    private static int[][] signatures(Graph g, int[] colours) {
+        final int[][] signatures = new int[g.n][];
+        for (int v = 0; v < g.n; v++) {
+            final int[] signature = new int[g.degrees[v] + 1];
+            signature[0] = colours[v];
+            int size = 1;
+            for (int w = 0; w < g.n; w++) {
+                if (g.M[v][w] == 1) {
+                    signature[size++] = colours[w];
+                }
+            }
+            Arrays.sort(signature, 1, size);
+            signatures[v] = signature;
+        }
+        return signatures;
+    }
+
+    private static int compare(int[] signature, int[] other) {
+        for (int i = 0; i < signature.length && i < other.length; i++) {
+            if (signature[i] != other[i]) {
+                return Integer.compare(signature[i], other[i]);
+            }
+        }
+        return Integer.compare(signature.length, other.length);
+    }
+
+    private static boolean isAutomorphism(Graph g, int[] permutation) {
+        for (int i = 0; i < g.n; i++) {
+            if (g.vertexLabels[i] != g.vertexLabels[permutation[i]]) {
+                return false;
+            }
+            for (int j = i + 1; j < g.n; j++) {
+                if (g.edgeLabels[i][j] != g.edgeLabels[permutation[i]][permutation[j]]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /** Keeps the smallest vertex as the root, so it identifies the orbit */
+    private static void union(int[] parent, int u, int v) {
+        final int rootU = find(parent, u);
+        final int rootV = find(parent, v);
+        parent[Math.max(rootU, rootV)] = Math.min(rootU, rootV);
+    }
+}
@@ -0,0 +1,140 @@
+package anc.algorithms;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.collect.ImmutableList;
+
+import anc.models.GeneticConfiguration;
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+
+/**
+ * Races several algorithms on separate threads over the same pair of graphs,
+ * as which of them wins depends heavily on the family of inputs. Exact
+ * algorithms share one incumbent, so each of them prunes against mappings
+ * found by any other, and results of the other algorithms are offered to it
+ * once they are done. The race ends as soon as the best mapping is proven
+ * maximum by some upper bound or the time limit passes, and then every
+ * algorithm still running is stopped. Stopped exact searches are given
+ * {@link #STOP_MILLIS} to return bounds of what they left unexplored, and
+ * algorithms slower to stop finish in the background.
+ */
+public class Portfolio implements MaximumCommonSubgraphAlgorithm {
+    static final long STOP_MILLIS = 100;
+
+    private final long timeLimitMillis;
+    private final List<MaximumCommonSubgraphAlgorithm> algorithms;
+
+    /** Time limit equal to 0 is disabled */
+    public Portfolio(long timeLimitMillis, List<MaximumCommonSubgraphAlgorithm> algorithms) {
+        if (algorithms.isEmpty()) {
+            throw new RuntimeException("Portfolio must have at least one algorithm!");
+        }
+
+        this.timeLimitMillis = timeLimitMillis;
+        this.algorithms = ImmutableList.copyOf(algorithms);
+    }
+
+    /**
+     * McSplit, McSplit deciding sizes from the largest down, maximum clique of
+     * the association graph and, if configured, genetic algorithm, all limited
+     * by the time limit of McSplit
+     */
+    public static Portfolio fromConfiguration(GeneticConfiguration geneticConfiguration,
+            McSplitConfiguration mcSplitConfiguration) {
+        if (mcSplitConfiguration.connected) {
+            throw new RuntimeException("Portfolio does not support connected common subgraphs!");
+        }
+
+        final List<MaximumCommonSubgraphAlgorithm> algorithms = new ArrayList<>();
+        algorithms.add(McSplit.fromConfiguration(mcSplitConfiguration));
+        algorithms.add(DownSearch.fromConfiguration(mcSplitConfiguration));
+        algorithms.add(AssociationGraphClique.fromConfiguration(mcSplitConfiguration));
+        if (geneticConfiguration != null) {
+            algorithms.add(Genetic.fromConfiguration(geneticConfiguration));
+        }
+        return new Portfolio(mcSplitConfiguration.timeLimitMillis, algorithms);
+    }
+
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
+        final Incumbent incumbent = new Incumbent(0, Math.min(g1.n, g2.n));
+        final List<Budget> budgets = new ArrayList<>();
+        // Threads of algorithms left running must not keep the application alive
+        final ExecutorService executor = Executors.newFixedThreadPool(algorithms.size(), runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<Integer> race = new ExecutorCompletionService<>(executor);
+        // Exact searches are stopped through their budgets, others are interrupted
+        final List<Future<Integer>> exactRuns = new ArrayList<>();
+        final List<Future<Integer>> otherRuns = new ArrayList<>();
+        for (MaximumCommonSubgraphAlgorithm algorithm : algorithms) {
+            if (algorithm instanceof ExactAlgorithm) {
+                final ExactAlgorithm exact = (ExactAlgorithm) algorithm;
+                final Budget budget = exact.newBudget();
+                budgets.add(budget);
+                exactRuns.add(race.submit(() -> exact.search(g1, g2, incumbent, budget)));
+            } else {
+                otherRuns.add(race.submit(() -> {
+                    final MaximumCommonSubgraph mcs = algorithm.compute(g1, g2);
+                    if (Hybrid.isInducedCommonSubgraph(mcs.M, g1, g2)) {
+                        incumbent.offer(mcs.M);
+                    }
+                    return mcs.upperBound;
+                }));
+            }
+        }
+
+        final long deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : 0;
+        int upperBound = Math.min(g1.n, g2.n);
+        try {
+            for (int finished = 0; finished < algorithms.size() && upperBound > incumbent.size(); finished++) {
+                final Future<Integer> run = deadline == 0 ? race.take()
+                        : race.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (run == null) {
+                    break;
+                }
+                upperBound = Math.min(upperBound, run.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(format("Algorithm of portfolio failed: %s", e.getCause().getMessage()),
+                    e.getCause());
+        } finally {
+            stop(executor, budgets, otherRuns);
+        }
+
+        // Stopped exact searches still return valid bounds of what they left unexplored
+        final long stopDeadline = System.nanoTime() + STOP_MILLIS * 1_000_000;
+        for (Future<Integer> run : exactRuns) {
+            try {
+                upperBound = Math.min(upperBound, run.get(stopDeadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                // Failed searches and searches slow to stop bound nothing
+            }
+        }
+        return new MaximumCommonSubgraph(incumbent.pairs(), g1, g2, Math.max(upperBound, incumbent.size()));
+    }
+
+    /** Stops every algorithm still running without waiting for them to return */
+    private static void stop(ExecutorService executor, List<Budget> budgets, List<Future<Integer>> otherRuns) {
+        budgets.forEach(Budget::stop);
+        otherRuns.forEach(run -> run.cancel(true));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,50 @@
+package anc.algorithms;
+
+import java.util.Random;
+
+import anc.algorithms.McSplit.LabelClasses;
+
+/**
+ * Vertex of G chosen by another strategy, matched with vertices of H in random
+ * order, so that restarted runs do not repeat the same top of the tree
+ */
+class RandomizedBranching implements BranchingStrategy {
+    private final BranchingStrategy strategy;
+    private final Random random;
+
+    public RandomizedBranching(BranchingStrategy strategy, Random random) {
+        this.strategy = strategy;
+        this.random = random;
+    }
+
+    @Override
+    public int selectVertexFromG(LabelClasses labelClasses, int labelClass) {
+        return strategy.selectVertexFromG(labelClasses, labelClass);
+    }
+
+    @Override
+    public int moveNextVertexFromHToEnd(LabelClasses labelClasses, int labelClass, int previous, long[] tried) {
+        final int start = labelClasses.startH[labelClass];
+        final int last = start + labelClasses.sizeH[labelClass];
+        int next = -1;
+        int untried = 0;
+        // Reservoir sampling picks every untried vertex with the same probability
+        for (int i = start; i <= last; i++) {
+            if (!Bitsets.contains(tried, labelClasses.H[i]) && random.nextInt(++untried) == 0) {
+                next = i;
+            }
+        }
+        labelClasses.swapH(next, last);
+        return labelClasses.H[last];
+    }
+
+    @Override
+    public void branched(int v, int w, int boundReduction) {
+        strategy.branched(v, w, boundReduction);
+    }
+
+    @Override
+    public BranchingStrategy copy() {
+        return new RandomizedBranching(strategy.copy(), new Random(random.nextLong()));
+    }
+}
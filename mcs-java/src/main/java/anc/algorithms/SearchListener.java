@@ -0,0 +1,40 @@
+package anc.algorithms;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+
+/**
+ * Hears what a search does, to tell whether it is slow because it branches
+ * badly or because its bound is weak. Searches running on several threads call
+ * the listener from all of them, so listeners must be thread-safe. Searches
+ * without listener check a single null reference per node, so instrumentation
+ * costs nothing when it is disabled.
+ */
+public interface SearchListener {
+    /** Why a search node or a branch was cut off */
+    enum Prune {
+        /** Bound of the node is not bigger than the incumbent */
+        BOUND,
+        /** No label class left is adjacent to the mapping of a connected search */
+        DISCONNECTED,
+        /** Branch was refuted by a nogood of an earlier run or checkpoint */
+        NOGOOD
+    }
+
+    default void started(Graph g1, Graph g2) {
+    }
+
+    /** Node at depth with labelClasses live label classes is branched on */
+    default void expanded(int depth, int labelClasses) {
+    }
+
+    default void pruned(int depth, Prune reason) {
+    }
+
+    /** Search found a mapping of size bigger than any before */
+    default void improved(int size) {
+    }
+
+    default void finished(MaximumCommonSubgraph mcs) {
+    }
+}
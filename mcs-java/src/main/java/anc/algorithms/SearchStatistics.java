@@ -0,0 +1,182 @@
+package anc.algorithms;
+
+import static java.lang.String.format;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+
+/**
+ * Counts of a single run of a search: expanded nodes, pruned nodes by reason,
+ * nodes and label classes per depth, better mappings with the time they were
+ * found at, and bytes allocated by the thread that started the run, which
+ * misses allocations of other threads of parallel searches. Statistics are
+ * exported as JSON.
+ */
+public class SearchStatistics implements SearchListener {
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder[] pruned = new LongAdder[Prune.values().length];
+    private final AtomicInteger maxDepth = new AtomicInteger(-1);
+    private AtomicLongArray nodesByDepth;
+    private AtomicLongArray labelClassesByDepth;
+    private final List<Improvement> improvements = new ArrayList<>();
+
+    private long startNanos;
+    private long elapsedNanos;
+    private long threadId;
+    private long startBytes;
+    private long allocatedBytes = -1;
+    private int size;
+    private int upperBound;
+
+    public SearchStatistics() {
+        for (Prune reason : Prune.values()) {
+            pruned[reason.ordinal()] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void started(Graph g1, Graph g2) {
+        // Mappings never have more pairs than the smaller graph has vertices
+        final int depths = Math.min(g1.n, g2.n) + 1;
+        nodesByDepth = new AtomicLongArray(depths);
+        labelClassesByDepth = new AtomicLongArray(depths);
+        threadId = Thread.currentThread().getId();
+        startBytes = allocatedBytesOfThread(threadId);
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void expanded(int depth, int labelClasses) {
+        nodes.increment();
+        if (depth > maxDepth.get()) {
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+        nodesByDepth.incrementAndGet(depth);
+        labelClassesByDepth.addAndGet(depth, labelClasses);
+    }
+
+    @Override
+    public void pruned(int depth, Prune reason) {
+        pruned[reason.ordinal()].increment();
+    }
+
+    @Override
+    public void improved(int size) {
+        final Improvement improvement = new Improvement(size, (System.nanoTime() - startNanos) / 1e6);
+        synchronized (improvements) {
+            improvements.add(improvement);
+        }
+    }
+
+    @Override
+    public void finished(MaximumCommonSubgraph mcs) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        final long endBytes = allocatedBytesOfThread(threadId);
+        allocatedBytes = startBytes >= 0 && endBytes >= 0 ? endBytes - startBytes : -1;
+        size = mcs.M.size();
+        upperBound = mcs.upperBound;
+    }
+
+    public long nodes() {
+        return nodes.sum();
+    }
+
+    public long pruned(Prune reason) {
+        return pruned[reason.ordinal()].sum();
+    }
+
+    /** Depth of the deepest expanded node, -1 if none was expanded */
+    public int maxDepth() {
+        return maxDepth.get();
+    }
+
+    public long nodesAtDepth(int depth) {
+        return nodesByDepth.get(depth);
+    }
+
+    /** Mean number of live label classes of nodes expanded at depth */
+    public double meanLabelClassesAtDepth(int depth) {
+        final long nodes = nodesByDepth.get(depth);
+        return nodes > 0 ? (double) labelClassesByDepth.get(depth) / nodes : 0;
+    }
+
+    /** Better mappings in the order they were found */
+    public List<Improvement> improvements() {
+        synchronized (improvements) {
+            return new ArrayList<>(improvements);
+        }
+    }
+
+    /** Bytes allocated by the thread that started the run, -1 if the JVM does not measure them */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int upperBound() {
+        return upperBound;
+    }
+
+    public String toJson() {
+        final StringBuilder json = new StringBuilder("{");
+        json.append(format("\"size\":%s,\"upperBound\":%s,", size, upperBound));
+        json.append(format(Locale.ROOT, "\"elapsedMillis\":%.3f,", elapsedMillis()));
+        json.append(format("\"nodes\":%s,\"maxDepth\":%s,", nodes(), maxDepth()));
+        json.append("\"pruned\":{");
+        for (Prune reason : Prune.values()) {
+            json.append(format("%s\"%s\":%s", reason.ordinal() > 0 ? "," : "",
+                    reason.name().toLowerCase(Locale.ROOT), pruned(reason)));
+        }
+        json.append("},\"improvements\":[");
+        final List<Improvement> improvements = improvements();
+        for (int i = 0; i < improvements.size(); i++) {
+            json.append(format(Locale.ROOT, "%s{\"size\":%s,\"millis\":%.3f}", i > 0 ? "," : "",
+                    improvements.get(i).size, improvements.get(i).millis));
+        }
+        json.append("],\"depths\":[");
+        for (int depth = 0; depth <= maxDepth(); depth++) {
+            json.append(format(Locale.ROOT, "%s{\"depth\":%s,\"nodes\":%s,\"meanLabelClasses\":%.3f}",
+                    depth > 0 ? "," : "", depth, nodesAtDepth(depth), meanLabelClassesAtDepth(depth)));
+        }
+        json.append(format("],\"allocatedBytes\":%s}", allocatedBytes));
+        return json.toString();
+    }
+
+    private static long allocatedBytesOfThread(long threadId) {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) threads;
+            if (hotSpotThreads.isThreadAllocatedMemorySupported() && hotSpotThreads.isThreadAllocatedMemoryEnabled()) {
+                return hotSpotThreads.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+
+    /** Mapping of size found millis after the run started */
+    public static class Improvement {
+        public final int size;
+        public final double millis;
+
+        public Improvement(int size, double millis) {
+            this.size = size;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package anc.algorithms;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.Pair;
+import anc.models.VertexOrdering;
+
+/**
+ * Relabels vertices of both graphs in the given order before running another
+ * algorithm, so that its adjacency rows and distance matrices are laid out in
+ * that order, and maps the result back to the original vertices.
+ */
+public class VertexOrderingAlgorithm implements MaximumCommonSubgraphAlgorithm {
+    private final MaximumCommonSubgraphAlgorithm algorithm;
+    private final VertexOrdering vertexOrdering;
+
+    public VertexOrderingAlgorithm(MaximumCommonSubgraphAlgorithm algorithm, VertexOrdering vertexOrdering) {
+        this.algorithm = algorithm;
+        this.vertexOrdering = vertexOrdering;
+    }
+
+    @Override
+    public MaximumCommonSubgraph compute(Graph g1, Graph g2) {
+        if (vertexOrdering == VertexOrdering.NONE) {
+            return algorithm.compute(g1, g2);
+        }
+
+        final int[] order1 = vertexOrdering.of(g1);
+        final int[] order2 = vertexOrdering.of(g2);
+        final MaximumCommonSubgraph relabelled = algorithm.compute(g1.relabel(order1), g2.relabel(order2));
+
+        final List<Pair> M = relabelled.M.stream().map(p -> new Pair(order1[p.v1], order2[p.v2]))
+                .sorted(Comparator.comparingInt(p -> p.v1)).collect(Collectors.toList());
+        if (relabelled.fromGenetic()) {
+            return new MaximumCommonSubgraph(M, g1, g2, mapGenomeBack(relabelled.bestGenome, order1, order2));
+        }
+        return new MaximumCommonSubgraph(M, g1, g2, relabelled.upperBound);
+    }
+
+    /**
+     * Gene i of genome is the vertex of g2 matched with vertex i of g1, genes
+     * after the vertices of g1 keep their positions
+     */
+    static List<Integer> mapGenomeBack(List<Integer> genome, int[] order1, int[] order2) {
+        final List<Integer> result = new ArrayList<>(genome);
+        for (int i = 0; i < genome.size(); i++) {
+            final int position = i < order1.length ? order1[i] : i;
+            result.set(position, order2[genome.get(i)]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package anc.algorithms;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import anc.algorithms.McSplit.LabelClasses;
+
+/**
+ * Search node given away to a worker process, its mapping of depth pairs and
+ * its label classes, which is all a search needs to explore the subtree below
+ * the node.
+ */
+class WorkUnit {
+    public final int depth;
+    public final int[] M1;
+    public final int[] M2;
+    /** Vertices of label classes, every class is a range of both G and H */
+    public final int[] G;
+    public final int[] H;
+    /** Every record is startG, sizeG, startH, sizeH of a label class */
+    public final int[][] records;
+    /** Whether vertices of the label class are adjacent to the mapping */
+    public final boolean[] adjacent;
+    /** Size of the mapping plus the pairs of label classes, nothing below the node is bigger */
+    public final int bound;
+
+    private WorkUnit(int depth, int[] M1, int[] M2, int[] G, int[] H, int[][] records, boolean[] adjacent,
+            int bound) {
+        this.depth = depth;
+        this.M1 = M1;
+        this.M2 = M2;
+        this.G = G;
+        this.H = H;
+        this.records = records;
+        this.adjacent = adjacent;
+        this.bound = bound;
+    }
+
+    /** Node whose label classes are records [from, to) and whose mapping is the first depth pairs of M1/M2 */
+    public static WorkUnit of(LabelClasses labelClasses, int from, int to, int[] M1, int[] M2, int depth) {
+        final LabelClasses copy = labelClasses.copyOf(from, to);
+        final int[][] records = new int[copy.size][];
+        final boolean[] adjacent = new boolean[copy.size];
+        for (int labelClass = 0; labelClass < copy.size; labelClass++) {
+            records[labelClass] = new int[] { copy.startG[labelClass], copy.sizeG[labelClass],
+                    copy.startH[labelClass], copy.sizeH[labelClass] };
+            adjacent[labelClass] = copy.adjacent[labelClass];
+        }
+        return new WorkUnit(depth, Arrays.copyOf(M1, depth), Arrays.copyOf(M2, depth), copy.G, copy.H, records,
+                adjacent, depth + copy.sumPairsOfVertices(0, copy.size));
+    }
+
+    /**
+     * Label classes of the node, degrees are those of the searched g1 and
+     * complement tells whether graphs are searched as their complements
+     */
+    public LabelClasses labelClasses(int[] degreesG, boolean connected, boolean complement) {
+        final LabelClasses labelClasses = new LabelClasses(degreesG, G.clone(), H.clone(),
+                4 * (Math.min(G.length, H.length) + 1));
+        for (int labelClass = 0; labelClass < records.length; labelClass++) {
+            final int[] record = records[labelClass];
+            labelClasses.add(record[0], record[1], record[2], record[3], adjacent[labelClass]);
+        }
+        if (connected) {
+            labelClasses.connect(complement);
+        }
+        return labelClasses;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(depth);
+        writeInts(out, M1);
+        writeInts(out, M2);
+        writeInts(out, G);
+        writeInts(out, H);
+        out.writeInt(records.length);
+        for (int labelClass = 0; labelClass < records.length; labelClass++) {
+            writeInts(out, records[labelClass]);
+            out.writeBoolean(adjacent[labelClass]);
+        }
+        out.writeInt(bound);
+    }
+
+    public static WorkUnit read(DataInputStream in) throws IOException {
+        final int depth = in.readInt();
+        final int[] M1 = readInts(in);
+        final int[] M2 = readInts(in);
+        final int[] G = readInts(in);
+        final int[] H = readInts(in);
+        final int size = in.readInt();
+        final int[][] records = new int[size][];
+        final boolean[] adjacent = new boolean[size];
+        for (int labelClass = 0; labelClass < size; labelClass++) {
+            records[labelClass] = readInts(in);
+            adjacent[labelClass] = in.readBoolean();
+        }
+        return new WorkUnit(depth, M1, M2, G, H, records, adjacent, in.readInt());
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        final int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
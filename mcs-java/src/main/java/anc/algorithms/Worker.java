@@ -0,0 +1,177 @@
+package anc.algorithms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import anc.algorithms.McSplit.LabelClasses;
+import anc.algorithms.McSplit.Problem;
+import anc.models.Branching;
+import anc.models.Graph;
+import anc.models.Pair;
+
+/**
+ * Worker process of a distributed McSplit search, see {@link Coordinator}. It
+ * connects to the coordinator listening on the local port given as its only
+ * argument, receives the graphs searched and then searches the work units it
+ * is given one at a time, until the coordinator tells it to quit. Better
+ * mappings and the number of expanded nodes are reported every
+ * {@link #REPORT_MILLIS} and whenever a unit is finished.
+ */
+public class Worker {
+    // Messages of the coordinator
+    static final byte PROBLEM = 1;
+    static final byte UNIT = 2;
+    static final byte BOUND = 3;
+    static final byte STOP = 4;
+    static final byte QUIT = 5;
+    // Messages of workers
+    static final byte INCUMBENT = 11;
+    static final byte NODES = 12;
+    static final byte FINISHED = 13;
+
+    static final long REPORT_MILLIS = 20;
+
+    private final DataOutputStream out;
+    /** Searches units one at a time, so the reading thread is free to receive bounds */
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+    /** Units are searched in budget of the whole worker, which the coordinator stops */
+    private final Budget budget = Budget.unlimited();
+
+    private Graph searched1;
+    private Graph searched2;
+    private boolean connected;
+    private boolean complement;
+    private Problem problem;
+    private BranchingStrategy strategy;
+    private Incumbent incumbent;
+    /** Size of mapping and number of nodes reported last */
+    private int reportedSize = 0;
+    private long reportedNodes = 0;
+
+    private Worker(DataOutputStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+            socket.setTcpNoDelay(true);
+            new Worker(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())))
+                    .run(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+        }
+    }
+
+    private void run(DataInputStream in) throws IOException {
+        try {
+            while (true) {
+                final byte message = in.readByte();
+                if (message == PROBLEM) {
+                    readProblem(in);
+                    reporter.scheduleWithFixedDelay(this::report, REPORT_MILLIS, REPORT_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                } else if (message == UNIT) {
+                    final WorkUnit unit = WorkUnit.read(in);
+                    searcher.execute(() -> search(unit));
+                } else if (message == BOUND) {
+                    incumbent.raiseFloor(in.readInt());
+                } else if (message == STOP) {
+                    budget.stop();
+                } else if (message == QUIT) {
+                    return;
+                } else {
+                    throw new IOException("Unknown message " + message);
+                }
+            }
+        } catch (EOFException e) {
+            // Coordinator is gone, so nobody waits for results
+        } finally {
+            budget.stop();
+            searcher.shutdown();
+            reporter.shutdownNow();
+        }
+    }
+
+    private void readProblem(DataInputStream in) throws IOException {
+        searched1 = readGraph(in);
+        searched2 = readGraph(in);
+        connected = in.readBoolean();
+        complement = in.readBoolean();
+        // Root is searched by the coordinator, so orbits are never needed
+        problem = Problem.of(searched1, searched2, false);
+        strategy = BranchingStrategy.of(Branching.valueOf(in.readUTF()), searched1.n, searched2.n);
+        incumbent = new Incumbent(0, Math.min(searched1.n, searched2.n));
+    }
+
+    private void search(WorkUnit unit) {
+        final int maxSize = Math.min(searched1.n, searched2.n);
+        final LabelClasses labelClasses = unit.labelClasses(searched1.degrees, connected, complement);
+        new McSplit.Search(problem, labelClasses, strategy, Arrays.copyOf(unit.M1, maxSize),
+                Arrays.copyOf(unit.M2, maxSize), incumbent, budget).search(0, labelClasses.size, unit.depth);
+        report();
+        synchronized (this) {
+            try {
+                out.writeByte(FINISHED);
+                out.writeInt(budget.remainingBound());
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Sends the best mapping if it is better than the one sent last, and nodes expanded since */
+    private synchronized void report() {
+        try {
+            final List<Pair> pairs = incumbent.pairs();
+            if (pairs.size() > reportedSize) {
+                out.writeByte(INCUMBENT);
+                out.writeInt(pairs.size());
+                for (Pair p : pairs) {
+                    out.writeInt(p.v1);
+                    out.writeInt(p.v2);
+                }
+                reportedSize = pairs.size();
+            }
+            final long nodes = budget.nodes();
+            if (nodes > reportedNodes) {
+                out.writeByte(NODES);
+                out.writeLong(nodes - reportedNodes);
+                reportedNodes = nodes;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeGraph(DataOutputStream out, Graph g) throws IOException {
+        out.writeInt(g.n);
+        WorkUnit.writeInts(out, g.vertexLabels);
+        for (int[] row : g.edgeLabels) {
+            WorkUnit.writeInts(out, row);
+        }
+    }
+
+    static Graph readGraph(DataInputStream in) throws IOException {
+        final int n = in.readInt();
+        final int[] vertexLabels = WorkUnit.readInts(in);
+        final int[][] edgeLabels = new int[n][];
+        for (int i = 0; i < n; i++) {
+            edgeLabels[i] = WorkUnit.readInts(in);
+        }
+        return Graph.labelled(n, vertexLabels, edgeLabels);
+    }
+}
@@ -1,5 +1,5 @@
 package anc.models;
 
 public enum AlgorithmType {
-    MC_SPLIT, GENETIC
+    MC_SPLIT, GENETIC, HYBRID, DOWN_SEARCH, CLIQUE, PORTFOLIO
 }
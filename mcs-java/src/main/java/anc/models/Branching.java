@@ -0,0 +1,9 @@
+package anc.models;
+
+/** Heuristic McSplit uses to choose vertices to branch on */
+public enum Branching {
+    /** Vertex of g1 with the largest degree, vertices of g2 in ascending order */
+    DEGREE,
+    /** Vertices with the largest scores, learned from how much branching on them reduced the bound */
+    LEARNED
+}
@@ -4,19 +4,26 @@ public class Configuration {
     public final ProblemType problemType;
     public final AlgorithmType algorithmType;
     public final GeneticConfiguration geneticConfiguration;
+    public final McSplitConfiguration mcSplitConfiguration;
+    public final VertexOrdering vertexOrdering;
     public final String inputFilePath;
 
     public Configuration(ProblemType problemType, AlgorithmType algorithmType, String inputFilePath) {
         this.problemType = problemType;
         this.algorithmType = algorithmType;
         this.geneticConfiguration = null;
+        this.mcSplitConfiguration = McSplitConfiguration.defaults();
+        this.vertexOrdering = VertexOrdering.NONE;
         this.inputFilePath = inputFilePath;
     }
 
-    public Configuration(ProblemType problemType, AlgorithmType algorithmType, GeneticConfiguration geneticConfiguration, String inputFilePath) {
+    public Configuration(ProblemType problemType, AlgorithmType algorithmType, GeneticConfiguration geneticConfiguration,
+            McSplitConfiguration mcSplitConfiguration, VertexOrdering vertexOrdering, String inputFilePath) {
         this.problemType = problemType;
         this.algorithmType = algorithmType;
         this.geneticConfiguration = geneticConfiguration;
+        this.mcSplitConfiguration = mcSplitConfiguration;
+        this.vertexOrdering = vertexOrdering;
         this.inputFilePath = inputFilePath;
     }
 }
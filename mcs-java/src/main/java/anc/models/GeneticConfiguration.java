@@ -1,25 +1,40 @@
 package anc.models;
 
 public class GeneticConfiguration {
+    /** Seed of runs not given one */
+    public static final long DEFAULT_SEED = 13;
+
     public final int nGenomes;
     public final int nGenerations;
     public final int nCb;
     public final int nTribes;
     public final double pCrossover;
     public final double pMutation;
+    /** Every run of the same configuration on the same graphs gives the same result */
+    public final long seed;
 
 
     public GeneticConfiguration(int nGenomes, int nGenerations, int nCb, int nTribes, double pCrossover,
             double pMutation) {
+        this(nGenomes, nGenerations, nCb, nTribes, pCrossover, pMutation, DEFAULT_SEED);
+    }
+
+    public GeneticConfiguration(int nGenomes, int nGenerations, int nCb, int nTribes, double pCrossover,
+            double pMutation, long seed) {
         this.nGenomes = nGenomes;
         this.nGenerations = nGenerations;
         this.nCb = nCb;
         this.nTribes = nTribes;
         this.pCrossover = pCrossover;
         this.pMutation = pMutation;
+        this.seed = seed;
     }
 
     public static GeneticConfiguration fromPaper() {
         return new GeneticConfiguration(256, 512, 32, 4, 0.9, 0.5);
     }
+
+    public GeneticConfiguration withSeed(long seed) {
+        return new GeneticConfiguration(nGenomes, nGenerations, nCb, nTribes, pCrossover, pMutation, seed);
+    }
 }
@@ -3,32 +3,163 @@ package anc.models;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.lang.String.format;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import com.google.common.base.Objects;
 
+/**
+ * Undirected graph given by its adjacency matrix. Vertices and edges may carry
+ * integer labels, which common subgraphs must preserve. Vertices of graphs
+ * without labels are all labelled 0 and all their edges are labelled 1, so
+ * edge labels double as the adjacency matrix, where 0 means no edge.
+ */
 public class Graph {
     public final int n;
     public final int[][] M;
+    /** Degrees of vertices, computed once when graph is created */
+    public final int[] degrees;
+    public final int[] vertexLabels;
+    /** Label of every edge, 0 for pairs of vertices that are not adjacent */
+    public final int[][] edgeLabels;
 
     public Graph(int n, int[][] M) {
+        this(n, M, new int[n], M);
+    }
+
+    public Graph(int n, int[][] M, int[] vertexLabels, int[][] edgeLabels) {
         this.n = n;
         this.M = M;
+        this.degrees = computeDegrees(M);
+        this.vertexLabels = vertexLabels;
+        this.edgeLabels = edgeLabels;
+    }
+
+    /**
+     * Creates graph from its matrix of edge labels, where 0 means no edge and
+     * any other value is an edge with that label
+     */
+    public static Graph labelled(int n, int[] vertexLabels, int[][] edgeLabels) {
+        final int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                M[i][j] = edgeLabels[i][j] != 0 ? 1 : 0;
+            }
+        }
+        return new Graph(n, M, vertexLabels, edgeLabels);
     }
 
     public void validate() {
         validateSize();
         validateUndirected();
         validateUnweighted();
+        validateLabels();
         validateConnected();
     }
 
+    /** Whether some vertex is labelled other than 0 or some edge other than 1 */
+    public boolean isLabelled() {
+        return Arrays.stream(vertexLabels).anyMatch(label -> label != 0) || hasEdgeLabels();
+    }
+
+    /** Whether some edge is labelled other than 1 */
+    public boolean hasEdgeLabels() {
+        if (edgeLabels == M) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (edgeLabels[i][j] != M[i][j]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public int degreeOf(int vertex) {
-        int degree = 0;
+        return degrees[vertex];
+    }
+
+    /** Fraction of pairs of distinct vertices that are adjacent */
+    public double density() {
+        if (n < 2) {
+            return 0;
+        }
+        long sum = 0;
+        for (int degree : degrees) {
+            sum += degree;
+        }
+        return (double) sum / ((long) n * (n - 1));
+    }
+
+    /**
+     * Creates graph with the same vertices, where two distinct vertices are
+     * adjacent iff they are not here. Vertex labels are kept, but edge labels
+     * are not, as edges of the complement are not edges of this graph.
+     */
+    public Graph complement() {
+        final int[][] complement = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                complement[i][j] = i != j && M[i][j] == 0 ? 1 : 0;
+            }
+        }
+        return new Graph(n, complement, vertexLabels, complement);
+    }
+
+    /**
+     * Creates a copy of graph where vertex i is vertex order[i] of this graph, so
+     * order maps new vertices back to the original ones
+     */
+    public Graph relabel(int[] order) {
+        final int[][] relabelled = new int[n][n];
+        final int[] relabelledVertexLabels = new int[n];
+        final int[][] relabelledEdgeLabels = edgeLabels == M ? relabelled : new int[n][n];
         for (int i = 0; i < n; i++) {
-            degree += M[vertex][i];
+            relabelledVertexLabels[i] = vertexLabels[order[i]];
+            for (int j = 0; j < n; j++) {
+                relabelled[i][j] = M[order[i]][order[j]];
+                relabelledEdgeLabels[i][j] = edgeLabels[order[i]][order[j]];
+            }
         }
-        return degree;
+        return new Graph(n, relabelled, relabelledVertexLabels, relabelledEdgeLabels);
+    }
+
+    /** Vertices sorted by descending degree, ties are broken by the smallest index */
+    public int[] degreeOrder() {
+        return IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingInt((Integer v) -> -degrees[v]).thenComparingInt(v -> v))
+                .mapToInt(v -> v).toArray();
+    }
+
+    /**
+     * Vertices in reverse degeneracy order. Vertices of the smallest degree are
+     * removed one by one, ties broken by the smallest index, and the last removed
+     * ones, which form the densest core of graph, come first.
+     */
+    public int[] degeneracyOrder() {
+        final int[] remainingDegrees = Arrays.copyOf(degrees, n);
+        final boolean[] removed = new boolean[n];
+        final int[] order = new int[n];
+        for (int position = n - 1; position >= 0; position--) {
+            int vertex = -1;
+            for (int i = 0; i < n; i++) {
+                if (!removed[i] && (vertex == -1 || remainingDegrees[i] < remainingDegrees[vertex])) {
+                    vertex = i;
+                }
+            }
+            removed[vertex] = true;
+            order[position] = vertex;
+            for (int i = 0; i < n; i++) {
+                if (M[vertex][i] == 1) {
+                    remainingDegrees[i]--;
+                }
+            }
+        }
+        return order;
     }
 
     public List<Pair> listOfEdges() {
@@ -88,6 +219,21 @@ public class Graph {
         }
     }
 
+    private void validateLabels() {
+        if (vertexLabels.length != n) {
+            throw new RuntimeException(format("Graph has %s vertex labels, but %s vertices!", vertexLabels.length, n));
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if ((edgeLabels[i][j] != 0) != (M[i][j] == 1) || edgeLabels[i][j] != edgeLabels[j][i]) {
+                    throw new RuntimeException(format(
+                            "Edge labels must be symmetric and non-zero exactly on edges! Vertices %s and %s broke this rule.",
+                            i, j));
+                }
+            }
+        }
+    }
+
     private void validateConnected() {
         final boolean[] visited = new boolean[n];
         dfs(0, visited);
@@ -98,18 +244,42 @@ public class Graph {
         }
     }
 
+    /** Marks vertices reachable from v, using a stack of vertices instead of recursion */
     private void dfs(int v, boolean[] visited) {
+        if (n == 0) {
+            return;
+        }
+        final int[] stack = new int[n];
+        int size = 0;
         visited[v] = true;
-        for (int i = 0; i < n; i++) {
-            if (!visited[i] && M[v][i] == 1) {
-                dfs(i, visited);
+        stack[size++] = v;
+        while (size > 0) {
+            final int vertex = stack[--size];
+            for (int i = 0; i < n; i++) {
+                if (!visited[i] && M[vertex][i] == 1) {
+                    visited[i] = true;
+                    stack[size++] = i;
+                }
+            }
+        }
+    }
+
+    private static int[] computeDegrees(int[][] M) {
+        if (M == null) {
+            return new int[0];
+        }
+        final int[] degrees = new int[M.length];
+        for (int i = 0; i < M.length; i++) {
+            for (int value : M[i]) {
+                degrees[i] += value;
             }
         }
+        return degrees;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(n, M);
+        return Objects.hashCode(n, M, vertexLabels, edgeLabels);
     }
 
     @Override
@@ -121,6 +291,7 @@ public class Graph {
         if (getClass() != obj.getClass())
             return false;
         Graph other = (Graph) obj;
-        return Objects.equal(n, other.n) && Objects.equal(M, other.M);
+        return Objects.equal(n, other.n) && Objects.equal(M, other.M)
+                && Objects.equal(vertexLabels, other.vertexLabels) && Objects.equal(edgeLabels, other.edgeLabels);
     }
 }
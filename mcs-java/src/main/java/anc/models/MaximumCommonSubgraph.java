@@ -16,12 +16,18 @@ public class MaximumCommonSubgraph {
     public final List<Pair> M;
     public final int[][] adjacencyMatrix;
     public final List<Integer> bestGenome;
+    /**
+     * Upper bound on the size of maximum common subgraph, equal to the size of M
+     * if M is proven to be maximum.
+     */
+    public final int upperBound;
 
-    public MaximumCommonSubgraph(List<Pair> M, Graph g1, Graph g2, List<Integer> bestGenome) {
+    private MaximumCommonSubgraph(List<Pair> M, Graph g1, Graph g2, List<Integer> bestGenome, int upperBound) {
         this.M = M;
         this.g1 = g1;
         this.g2 = g2;
         this.bestGenome = bestGenome;
+        this.upperBound = upperBound;
 
         // Build adjacency matrix
         final int n = M.size();
@@ -33,8 +39,18 @@ public class MaximumCommonSubgraph {
         }
     }
 
+    /** Approximation found by genetic algorithm, so only the trivial bound is known */
+    public MaximumCommonSubgraph(List<Pair> M, Graph g1, Graph g2, List<Integer> bestGenome) {
+        this(M, g1, g2, bestGenome, Math.min(g1.n, g2.n));
+    }
+
+    public MaximumCommonSubgraph(List<Pair> M, Graph g1, Graph g2, int upperBound) {
+        this(M, g1, g2, null, upperBound);
+    }
+
+    /** Common subgraph proven to be maximum */
     public MaximumCommonSubgraph(List<Pair> M, Graph g1, Graph g2) {
-        this(M, g1, g2, null);
+        this(M, g1, g2, null, M.size());
     }
 
     /** Results are sorted indeces */
@@ -57,9 +73,13 @@ public class MaximumCommonSubgraph {
         return bestGenome != null;
     }
 
+    public boolean isOptimal() {
+        return M.size() >= upperBound;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hashCode(g1, g2, M, adjacencyMatrix, bestGenome);
+        return Objects.hashCode(g1, g2, M, adjacencyMatrix, bestGenome, upperBound);
     }
 
     @Override
@@ -72,7 +92,8 @@ public class MaximumCommonSubgraph {
             return false;
         MaximumCommonSubgraph other = (MaximumCommonSubgraph) obj;
         return Objects.equal(g1, other.g1) && Objects.equal(g2, other.g2) && Objects.equal(M, other.M)
-                && Objects.equal(adjacencyMatrix, other.adjacencyMatrix) && Objects.equal(bestGenome, other.bestGenome);
+                && Objects.equal(adjacencyMatrix, other.adjacencyMatrix) && Objects.equal(bestGenome, other.bestGenome)
+                && upperBound == other.upperBound;
     }
 
 }
@@ -0,0 +1,122 @@
+package anc.models;
+
+public class McSplitConfiguration {
+    /** Number of worker threads, 1 runs the search on the calling thread */
+    public final int nThreads;
+    /** Wall-clock budget of the search in milliseconds, 0 means no limit */
+    public final long timeLimitMillis;
+    /** Budget of expanded search nodes, 0 means no limit */
+    public final long nodeLimit;
+    /** Whether the root of the search branches only once on symmetric vertices */
+    public final boolean symmetryBreaking;
+    /**
+     * Graphs are searched as their complements if their mean density exceeds it,
+     * 1 means never
+     */
+    public final double complementDensity;
+    /** Heuristic choosing vertices to branch on */
+    public final Branching branching;
+    /** Schedule of restarts of the search, which keeps it exact */
+    public final Restarts restarts;
+    /** Whether only connected common subgraphs are searched */
+    public final boolean connected;
+    /** File the state of the search is saved to, null means never */
+    public final String checkpointPath;
+    /** Time between two saves of the state of the search */
+    public final long checkpointIntervalMillis;
+    /** Whether the search continues from the state saved to the checkpoint file, if there is one */
+    public final boolean resume;
+    /** Number of worker processes the search is distributed over, 0 runs it in this process */
+    public final int nWorkers;
+    /** Depth of search nodes given away to workers */
+    public final int splitDepth;
+
+    private McSplitConfiguration(int nThreads, long timeLimitMillis, long nodeLimit, boolean symmetryBreaking,
+            double complementDensity, Branching branching, Restarts restarts, boolean connected,
+            String checkpointPath, long checkpointIntervalMillis, boolean resume, int nWorkers, int splitDepth) {
+        this.nThreads = nThreads;
+        this.timeLimitMillis = timeLimitMillis;
+        this.nodeLimit = nodeLimit;
+        this.symmetryBreaking = symmetryBreaking;
+        this.complementDensity = complementDensity;
+        this.branching = branching;
+        this.restarts = restarts;
+        this.connected = connected;
+        this.checkpointPath = checkpointPath;
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        this.resume = resume;
+        this.nWorkers = nWorkers;
+        this.splitDepth = splitDepth;
+    }
+
+    public static McSplitConfiguration defaults() {
+        return new McSplitConfiguration(1, 0, 0, false, 0.5, Branching.DEGREE, Restarts.NONE, false, null, 0, false,
+                0, 2);
+    }
+
+    public McSplitConfiguration withThreads(int nThreads) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withTimeLimit(long timeLimitMillis) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withNodeLimit(long nodeLimit) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withSymmetryBreaking(boolean symmetryBreaking) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withComplementDensity(double complementDensity) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withBranching(Branching branching) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withRestarts(Restarts restarts) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withConnected(boolean connected) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withCheckpoint(String checkpointPath, long checkpointIntervalMillis) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withResume(boolean resume) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+
+    public McSplitConfiguration withWorkers(int nWorkers, int splitDepth) {
+        return new McSplitConfiguration(nThreads, timeLimitMillis, nodeLimit, symmetryBreaking, complementDensity,
+                branching, restarts, connected, checkpointPath, checkpointIntervalMillis, resume,
+                nWorkers, splitDepth);
+    }
+}
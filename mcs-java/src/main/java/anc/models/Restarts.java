@@ -0,0 +1,41 @@
+package anc.models;
+
+/** Schedule of node limits of McSplit runs, each of which restarts the search from the root */
+public enum Restarts {
+    /** Single run without a node limit */
+    NONE,
+    /** Run i may expand UNIT_NODES times the i-th element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, ... */
+    LUBY,
+    /** Every run may expand GROWTH times more nodes than the previous one, starting from UNIT_NODES */
+    GEOMETRIC;
+
+    public static final long UNIT_NODES = 1000;
+    public static final double GROWTH = 1.5;
+
+    /** Number of nodes run i (counted from 0) may expand, 0 means no limit */
+    public long nodeLimitOfRun(int run) {
+        switch (this) {
+        case LUBY:
+            return UNIT_NODES * luby(run + 1);
+        case GEOMETRIC:
+            return (long) Math.min(UNIT_NODES * Math.pow(GROWTH, run), Long.MAX_VALUE);
+        default:
+            return 0;
+        }
+    }
+
+    /** I-th element of the Luby sequence, counted from 1 */
+    static long luby(long i) {
+        while (true) {
+            // Smallest power of 2 such that power - 1 >= i
+            long power = 2;
+            while (power - 1 < i) {
+                power *= 2;
+            }
+            if (i == power - 1) {
+                return power / 2;
+            }
+            i -= power / 2 - 1;
+        }
+    }
+}
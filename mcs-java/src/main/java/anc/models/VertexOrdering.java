@@ -0,0 +1,27 @@
+package anc.models;
+
+/** Order in which vertices of graphs are relabelled before running an algorithm */
+public enum VertexOrdering {
+    /** Vertices are kept in the order of the input */
+    NONE,
+    /** Vertices are sorted by descending degree */
+    DEGREE,
+    /** Vertices of the densest core come first */
+    DEGENERACY;
+
+    /** Returns order of vertices of g, where position i holds the original vertex */
+    public int[] of(Graph g) {
+        switch (this) {
+        case DEGREE:
+            return g.degreeOrder();
+        case DEGENERACY:
+            return g.degeneracyOrder();
+        default:
+            final int[] order = new int[g.n];
+            for (int v = 0; v < g.n; v++) {
+                order[v] = v;
+            }
+            return order;
+        }
+    }
+}
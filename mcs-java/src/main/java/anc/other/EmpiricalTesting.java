@@ -5,13 +5,19 @@ import static java.lang.String.format;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import anc.algorithms.AssociationGraphClique;
+import anc.algorithms.DownSearch;
 import anc.algorithms.Genetic;
+import anc.algorithms.Hybrid;
 import anc.algorithms.MaximumCommonSubgraphAlgorithm;
 import anc.algorithms.McSplit;
 import anc.algorithms.MinimumCommonSupergraphAlgorithm;
+import anc.algorithms.Portfolio;
+import anc.algorithms.SearchStatistics;
 import anc.models.AlgorithmType;
 import anc.models.GeneticConfiguration;
 import anc.models.Input;
+import anc.models.McSplitConfiguration;
 import anc.models.MaximumCommonSubgraph;
 import anc.models.MinimumCommonSupergraph;
 import anc.models.ProblemType;
@@ -24,6 +30,7 @@ public class EmpiricalTesting {
     private static String INPUT_4 = RESOURCE_DIR + "input4.txt";
     private static String INPUT_5 = RESOURCE_DIR + "input4.txt";
     private static Function<Integer, String> PATTERN1_N = (Integer n) -> RESOURCE_DIR + format("pattern1_n%s.txt", n);
+    private static long MC_SPLIT_TIME_LIMIT_MILLIS = 60_000;
 
     public static void main(String[] args) throws Exception {
         runAndDisplayEmpiricalTests(INPUT_2);
@@ -35,8 +42,8 @@ public class EmpiricalTesting {
         runAndDisplayEmpiricalTests(PATTERN1_N.apply(10));
         runAndDisplayEmpiricalTests(PATTERN1_N.apply(15));
         runAndDisplayEmpiricalTests(PATTERN1_N.apply(20));
-        runAndDisplayEmpiricalTests(AlgorithmType.GENETIC, PATTERN1_N.apply(25));
-        runAndDisplayEmpiricalTests(AlgorithmType.GENETIC, PATTERN1_N.apply(50));
+        runAndDisplayEmpiricalTests(PATTERN1_N.apply(25));
+        runAndDisplayEmpiricalTests(PATTERN1_N.apply(50));
     }
 
     static void runAndDisplayEmpiricalTests(String inputFilePath) {
@@ -44,6 +51,10 @@ public class EmpiricalTesting {
 
         testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.MC_SPLIT, input);
         testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.GENETIC, input);
+        testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.HYBRID, input);
+        testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.DOWN_SEARCH, input);
+        testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.CLIQUE, input);
+        testAndDisplay(ProblemType.MAXIMUM_COMMON_SUBGRAPH, AlgorithmType.PORTFOLIO, input);
         testAndDisplay(ProblemType.MINIMUM_COMMON_SUPERGRAPH, AlgorithmType.MC_SPLIT, input);
         testAndDisplay(ProblemType.MINIMUM_COMMON_SUPERGRAPH, AlgorithmType.GENETIC, input);
 
@@ -72,33 +83,52 @@ public class EmpiricalTesting {
     }
 
     static void testAndDisplay(ProblemType problemType, AlgorithmType algorithmType, Input input) {
-        final MaximumCommonSubgraphAlgorithm subgraphAlgo = algorithmType == AlgorithmType.MC_SPLIT ? new McSplit()
-                : Genetic.fromConfiguration(GeneticConfiguration.fromPaper());
+        final McSplitConfiguration mcSplitConfiguration = McSplitConfiguration.defaults()
+                .withTimeLimit(MC_SPLIT_TIME_LIMIT_MILLIS).withSymmetryBreaking(true);
+        final McSplit mcSplit = McSplit.fromConfiguration(mcSplitConfiguration);
+        final Genetic genetic = Genetic.fromConfiguration(GeneticConfiguration.fromPaper());
+        final MaximumCommonSubgraphAlgorithm subgraphAlgo = algorithmType == AlgorithmType.MC_SPLIT ? mcSplit
+                : algorithmType == AlgorithmType.GENETIC ? genetic
+                        : algorithmType == AlgorithmType.HYBRID ? new Hybrid(genetic, mcSplit)
+                                : algorithmType == AlgorithmType.DOWN_SEARCH
+                                        ? DownSearch.fromConfiguration(mcSplitConfiguration)
+                                        : algorithmType == AlgorithmType.CLIQUE
+                                                ? AssociationGraphClique.fromConfiguration(mcSplitConfiguration)
+                                                : Portfolio.fromConfiguration(GeneticConfiguration.fromPaper(),
+                                                        mcSplitConfiguration);
 
         if (problemType == ProblemType.MAXIMUM_COMMON_SUBGRAPH) {
+            final SearchStatistics statistics = new SearchStatistics();
             final TimeItResult<MaximumCommonSubgraph> subgraphResult = timeIt(
-                    () -> subgraphAlgo.compute(input.g1, input.g2));
-            displayEmpiracalResult(subgraphResult);
+                    () -> subgraphAlgo.compute(input.g1, input.g2, statistics));
+            displayEmpiracalResult(algorithmType, subgraphResult);
+            System.out.println(format("- Statistics: %s", statistics.toJson()));
         } else {
             final MinimumCommonSupergraphAlgorithm supergraphAlgo = new MinimumCommonSupergraphAlgorithm(subgraphAlgo);
             final TimeItResult<MinimumCommonSupergraph> supergraphResult = timeIt(
                     () -> supergraphAlgo.compute(input.g1, input.g2));
-            displayEmpiracalResult(supergraphResult);
+            displayEmpiracalResult(algorithmType, supergraphResult);
         }
     }
 
-    static <T> void displayEmpiracalResult(TimeItResult<T> result) {
+    static <T> void displayEmpiracalResult(AlgorithmType algorithmType, TimeItResult<T> result) {
         final String indent = "- ";
+        final String algo = algorithmType == AlgorithmType.MC_SPLIT ? "McSplit"
+                : algorithmType == AlgorithmType.GENETIC ? "Genetic"
+                        : algorithmType == AlgorithmType.HYBRID ? "Genetic + McSplit"
+                                : algorithmType == AlgorithmType.DOWN_SEARCH ? "McSplit k-down"
+                                        : algorithmType == AlgorithmType.CLIQUE ? "Association graph clique"
+                                                : "Portfolio";
 
         int n;
+        MaximumCommonSubgraph mcs;
         if (result.result instanceof MaximumCommonSubgraph) {
-            final MaximumCommonSubgraph mcs = (MaximumCommonSubgraph) result.result;
-            final String algo = mcs.fromGenetic() ? "Genetic" : "McSplit";
+            mcs = (MaximumCommonSubgraph) result.result;
             System.out.println(format("Maximum common subgraph(%s):", algo));
             n = mcs.M.size();
         } else {
             final MinimumCommonSupergraph MCS = (MinimumCommonSupergraph) result.result;
-            final String algo = MCS.mcs.fromGenetic() ? "Genetic" : "McSplit";
+            mcs = MCS.mcs;
             System.out.println(format("Minimum common supergraph(%s):", algo));
             n = MCS.M.size();
         }
@@ -106,6 +136,9 @@ public class EmpiricalTesting {
 
         System.out.println(indent + format("Size: %s", n));
         System.out.println(indent + format("Execution time: %s milliseconds", executionTime));
+        if (!mcs.fromGenetic() && !mcs.isOptimal()) {
+            System.out.println(indent + format("Time limit reached, upper bound of subgraph: %s", mcs.upperBound));
+        }
     }
 
     static Input readAndDisplayInput(String inputFilePath) {
@@ -129,10 +162,10 @@ public class EmpiricalTesting {
     }
 
     static <T> TimeItResult<T> timeIt(Supplier<T> function) {
-        final long startTime = System.currentTimeMillis();
+        final long startTime = System.nanoTime();
         final T result = function.get();
-        final long endTime = System.currentTimeMillis();
-        final long executionTime = (endTime - startTime);
+        final long endTime = System.nanoTime();
+        final long executionTime = (endTime - startTime) / 1_000_000;
         return new TimeItResult<T>(result, executionTime);
     }
 
@@ -6,25 +6,39 @@ import java.util.Scanner;
 import java.util.function.Function;
 
 import anc.models.AlgorithmType;
+import anc.models.Branching;
 import anc.models.Configuration;
 import anc.models.GeneticConfiguration;
+import anc.models.McSplitConfiguration;
 import anc.models.ProblemType;
+import anc.models.Restarts;
+import anc.models.VertexOrdering;
 
 public class ConfigurationReader {
 
     public static Configuration read() {
-        final Scanner in = new Scanner(System.in);
+        return read(new Scanner(System.in));
+    }
 
+    /** Reads answers to every prompt from the scanner given, which is closed afterwards */
+    static Configuration read(Scanner in) {
         final ProblemType problemType = readProblemType(in);
         final AlgorithmType algorithmType = readAlgorithmType(in);
         GeneticConfiguration geneticConfiguration = null;
-        if (algorithmType == AlgorithmType.GENETIC) {
+        McSplitConfiguration mcSplitConfiguration = McSplitConfiguration.defaults();
+        if (algorithmType == AlgorithmType.GENETIC || algorithmType == AlgorithmType.HYBRID
+                || algorithmType == AlgorithmType.PORTFOLIO) {
             geneticConfiguration = readGeneticConfiguration(in);
         }
+        if (algorithmType != AlgorithmType.GENETIC) {
+            mcSplitConfiguration = readMcSplitConfiguration(in);
+        }
+        final VertexOrdering vertexOrdering = readVertexOrdering(in);
         final String inputFilePath = readInputFilePath(in);
 
         in.close();
-        return new Configuration(problemType, algorithmType, geneticConfiguration, inputFilePath);
+        return new Configuration(problemType, algorithmType, geneticConfiguration, mcSplitConfiguration,
+                vertexOrdering, inputFilePath);
     }
 
     private static ProblemType readProblemType(Scanner in) {
@@ -39,14 +53,18 @@ public class ConfigurationReader {
     }
 
     private static AlgorithmType readAlgorithmType(Scanner in) {
-        System.out.println("Select which algorithm should be used (1/2):");
+        System.out.println("Select which algorithm should be used (1/2/3/4/5/6):");
         System.out.println("1. Mc Split");
         System.out.println("2. Genetic");
+        System.out.println("3. Mc Split starting from result of genetic");
+        System.out.println("4. Mc Split deciding sizes from the largest down");
+        System.out.println("5. Maximum clique of the association graph");
+        System.out.println("6. All of the above racing each other");
 
-        final int algorithmTypeInput = readInt(in, v -> !newArrayList(1, 2).contains(v),
-                "You must type 1 or 2 when selecting algorithm type!");
+        final int algorithmTypeInput = readInt(in, v -> !newArrayList(1, 2, 3, 4, 5, 6).contains(v),
+                "You must type 1, 2, 3, 4, 5 or 6 when selecting algorithm type!");
 
-        return (algorithmTypeInput == 1) ? AlgorithmType.MC_SPLIT : AlgorithmType.GENETIC;
+        return AlgorithmType.values()[algorithmTypeInput - 1];
     }
 
     private static GeneticConfiguration readGeneticConfiguration(Scanner in) {
@@ -84,7 +102,107 @@ public class ConfigurationReader {
         final double pMutation = readDouble(in, v -> v < 0 || v > 1,
                 "Probability of mutation must be a floating point number between 0 and 1 (inclusive)!");
 
-        return new GeneticConfiguration(nGenomes, nGenerations, nCb, nTribes, pCrossover, pMutation);
+        System.out.println("Provide seed of the random number generator:");
+        final long seed = readLong(in, v -> false, "Seed must be an integer!");
+
+        return new GeneticConfiguration(nGenomes, nGenerations, nCb, nTribes, pCrossover, pMutation, seed);
+    }
+
+    private static McSplitConfiguration readMcSplitConfiguration(Scanner in) {
+        System.out.println("Do you want to configure Mc Split algorithm? (y/n):");
+
+        final char configurationInput = in.next().charAt(0);
+        if (!newArrayList('y', 'n').contains(configurationInput)) {
+            throw new RuntimeException(
+                    "You must type y or n when deciding if you want to configure Mc Split algorithm!");
+        }
+
+        McSplitConfiguration configuration = McSplitConfiguration.defaults();
+        if (configurationInput == 'n') {
+            return configuration;
+        }
+
+        System.out.println("Provide number of threads:");
+        final int nThreads = readInt(in, v -> v < 1, "Number of threads must be an integer, and at least 1!");
+        configuration = configuration.withThreads(nThreads);
+
+        System.out.println("Provide time limit in milliseconds (0 for no limit):");
+        final int timeLimitMillis = readInt(in, v -> v < 0, "Time limit must be an integer, and at least 0!");
+        configuration = configuration.withTimeLimit(timeLimitMillis);
+
+        System.out.println("Provide limit of search nodes (0 for no limit):");
+        final int nodeLimit = readInt(in, v -> v < 0, "Limit of search nodes must be an integer, and at least 0!");
+        configuration = configuration.withNodeLimit(nodeLimit);
+
+        System.out.println("Do you want to skip vertices symmetric to already tried ones? (y/n):");
+        configuration = configuration.withSymmetryBreaking(readYesNo(in,
+                "You must type y or n when deciding if you want to skip symmetric vertices!"));
+
+        System.out.println("Do you want to search only connected common subgraphs? (y/n):");
+        configuration = configuration.withConnected(readYesNo(in,
+                "You must type y or n when deciding if you want to search only connected subgraphs!"));
+
+        System.out.println("Provide mean density above which complements of graphs are searched (between 0 and 1):");
+        final double complementDensity = readDouble(in, v -> v < 0 || v > 1,
+                "Density must be a floating point number between 0 and 1 (inclusive)!");
+        configuration = configuration.withComplementDensity(complementDensity);
+
+        System.out.println("Select how vertices to branch on should be chosen (1/2):");
+        System.out.println("1. Largest degree");
+        System.out.println("2. Learned from how much branching on them reduced the bound");
+        final int branchingInput = readInt(in, v -> !newArrayList(1, 2).contains(v),
+                "You must type 1 or 2 when selecting branching!");
+        configuration = configuration.withBranching(Branching.values()[branchingInput - 1]);
+
+        if (nThreads == 1) {
+            System.out.println("Select how the search should be restarted (1/2/3):");
+            System.out.println("1. Never");
+            System.out.println("2. Luby schedule");
+            System.out.println("3. Geometric schedule");
+            final int restartsInput = readInt(in, v -> !newArrayList(1, 2, 3).contains(v),
+                    "You must type 1, 2 or 3 when selecting restarts!");
+            configuration = configuration.withRestarts(Restarts.values()[restartsInput - 1]);
+        }
+
+        if (nThreads == 1) {
+            in.nextLine();
+            System.out.println("Provide path of the checkpoint file (empty line for no checkpoints):");
+            final String checkpointPath = in.nextLine().trim();
+            if (!checkpointPath.isEmpty()) {
+                System.out.println("Provide interval between checkpoints in milliseconds:");
+                final long checkpointIntervalMillis = readLong(in, v -> v < 0,
+                        "Interval between checkpoints must be an integer, and at least 0!");
+                configuration = configuration.withCheckpoint(checkpointPath, checkpointIntervalMillis);
+
+                System.out.println("Do you want to resume the search saved to the checkpoint file? (y/n):");
+                configuration = configuration.withResume(readYesNo(in,
+                        "You must type y or n when deciding if you want to resume the search!"));
+            }
+        }
+
+        if (nThreads == 1 && configuration.restarts == Restarts.NONE && configuration.checkpointPath == null) {
+            System.out.println("Provide number of worker processes (0 to search in this process):");
+            final int nWorkers = readInt(in, v -> v < 0, "Number of workers must be an integer, and at least 0!");
+            if (nWorkers > 0) {
+                System.out.println("Provide depth of search nodes given to workers:");
+                final int splitDepth = readInt(in, v -> v < 1, "Split depth must be an integer, and at least 1!");
+                configuration = configuration.withWorkers(nWorkers, splitDepth);
+            }
+        }
+
+        return configuration;
+    }
+
+    private static VertexOrdering readVertexOrdering(Scanner in) {
+        System.out.println("Select in which order vertices should be processed (1/2/3):");
+        System.out.println("1. Order of input");
+        System.out.println("2. Descending degree");
+        System.out.println("3. Degeneracy");
+
+        final int vertexOrderingInput = readInt(in, v -> !newArrayList(1, 2, 3).contains(v),
+                "You must type 1, 2 or 3 when selecting order of vertices!");
+
+        return VertexOrdering.values()[vertexOrderingInput - 1];
     }
 
     private static String readInputFilePath(Scanner in) {
@@ -93,6 +211,14 @@ public class ConfigurationReader {
         return in.nextLine();
     }
 
+    private static boolean readYesNo(Scanner in, String errorMessage) {
+        final char input = in.next().charAt(0);
+        if (!newArrayList('y', 'n').contains(input)) {
+            throw new RuntimeException(errorMessage);
+        }
+        return input == 'y';
+    }
+
     private static int readInt(Scanner in, Function<Integer, Boolean> throwCondition, String errorMessage) {
         if (!in.hasNextInt()) {
             throw new RuntimeException(errorMessage);
@@ -104,6 +230,17 @@ public class ConfigurationReader {
         return value;
     }
 
+    private static long readLong(Scanner in, Function<Long, Boolean> throwCondition, String errorMessage) {
+        if (!in.hasNextLong()) {
+            throw new RuntimeException(errorMessage);
+        }
+        final long value = in.nextLong();
+        if (throwCondition.apply(value)) {
+            throw new RuntimeException(errorMessage);
+        }
+        return value;
+    }
+
     private static double readDouble(Scanner in, Function<Double, Boolean> throwCondition, String errorMessage) {
         if (!in.hasNextDouble()) {
             throw new RuntimeException(errorMessage);
@@ -1,5 +1,7 @@
 package anc.readers;
 
+import static java.lang.String.format;
+
 import java.io.File;
 import java.io.IOException;
 import java.util.Scanner;
@@ -7,29 +9,54 @@ import java.util.Scanner;
 import anc.models.Graph;
 import anc.models.Input;
 
+/**
+ * Reads two graphs, each given by its number of vertices followed by its
+ * adjacency matrix. A file starting with the word "labelled" gives labelled
+ * graphs instead, each by its number of vertices, labels of its vertices and
+ * matrix of edge labels, where 0 means no edge.
+ */
 public class InputReader {
+    private static final String LABELLED = "labelled";
 
     public static Input read(String inputFilePath) {
         try (Scanner scanner = new Scanner(new File(inputFilePath))) {
-            int n1 = scanner.nextInt();
-            int[][] M1 = new int[n1][n1];
-            for (int i = 0; i < n1; ++i)
-                for (int j = 0; j < n1; ++j) {
-                    M1[i][j] = scanner.nextInt();
-                }
-            Graph g1 = new Graph(n1, M1);
-
-            int n2 = scanner.nextInt();
-            int[][] M2 = new int[n2][n2];
-            for (int i = 0; i < n2; ++i)
-                for (int j = 0; j < n2; ++j) {
-                    M2[i][j] = scanner.nextInt();
-                }
-            Graph g2 = new Graph(n2, M2);
+            final boolean labelled = !scanner.hasNextInt();
+            if (labelled && !scanner.next().equals(LABELLED)) {
+                throw new RuntimeException(
+                        format("Input file must start with a number of vertices or the word %s!", LABELLED));
+            }
+
+            Graph g1 = labelled ? readLabelledGraph(scanner) : readGraph(scanner);
+            Graph g2 = labelled ? readLabelledGraph(scanner) : readGraph(scanner);
 
             return new Input(g1, g2);
         } catch (IOException e) {
             throw new RuntimeException("Error with reading input file: " + e.getMessage());
         }
     }
+
+    private static Graph readGraph(Scanner scanner) {
+        int n = scanner.nextInt();
+        int[][] M = readMatrix(scanner, n);
+        return new Graph(n, M);
+    }
+
+    private static Graph readLabelledGraph(Scanner scanner) {
+        int n = scanner.nextInt();
+        int[] vertexLabels = new int[n];
+        for (int i = 0; i < n; ++i) {
+            vertexLabels[i] = scanner.nextInt();
+        }
+        int[][] edgeLabels = readMatrix(scanner, n);
+        return Graph.labelled(n, vertexLabels, edgeLabels);
+    }
+
+    private static int[][] readMatrix(Scanner scanner, int n) {
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j) {
+                M[i][j] = scanner.nextInt();
+            }
+        return M;
+    }
 }
@@ -0,0 +1,118 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static anc.algorithms.McSplitTest.randomGraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import anc.TestData.TestCase;
+import anc.algorithms.AssociationGraphClique.AssociationGraph;
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+
+public class AssociationGraphCliqueTest {
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeAsMcSplit() {
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = new AssociationGraphClique().compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertThat(mcs.isOptimal()).isTrue();
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldMatchIdenticalGraphsWhole() {
+        MaximumCommonSubgraph mcs = new AssociationGraphClique().compute(CASE1.g1, CASE1.g1);
+
+        assertThat(mcs.M).hasSize(8);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldMatchOnlyVerticesAndEdgesOfTheSameLabel() {
+        Graph path1 = Graph.labelled(3, new int[] { 1, 1, 2 }, new int[][] { { 0, 1, 0 }, { 1, 0, 2 }, { 0, 2, 0 } });
+        Graph path2 = Graph.labelled(3, new int[] { 1, 1, 2 }, new int[][] { { 0, 1, 0 }, { 1, 0, 1 }, { 0, 1, 0 } });
+
+        MaximumCommonSubgraph mcs = new AssociationGraphClique().compute(path1, path2);
+
+        assertThat(mcs.M).hasSize(2);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnUpperBoundWhenNodeLimitIsReached() {
+        MaximumCommonSubgraph mcs = new AssociationGraphClique(McSplitConfiguration.defaults().withNodeLimit(1))
+                .compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(mcs.upperBound).isGreaterThanOrEqualTo(6);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnTrivialBoundWhenThereAreTooManyPairs() {
+        Random random = new Random(1);
+        Graph g1 = randomGraph(random, 130, 0.5);
+        Graph g2 = randomGraph(random, 130, 0.5);
+
+        MaximumCommonSubgraph mcs = new AssociationGraphClique().compute(g1, g2);
+
+        assertThat(mcs.M).isEmpty();
+        assertThat(mcs.upperBound).isEqualTo(130);
+    }
+
+    @Test
+    public void shouldStopBuildingAssociationGraphWhenTimeLimitPasses() {
+        Random random = new Random(1);
+        Graph g1 = randomGraph(random, 120, 0.5);
+        Graph g2 = randomGraph(random, 120, 0.5);
+
+        long start = System.nanoTime();
+        MaximumCommonSubgraph mcs = new AssociationGraphClique(McSplitConfiguration.defaults().withTimeLimit(100))
+                .compute(g1, g2);
+
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        assertThat(mcs.isOptimal()).isFalse();
+    }
+
+    @Test
+    public void shouldNotSearchConnectedCommonSubgraphs() {
+        assertThatThrownBy(() -> new AssociationGraphClique(McSplitConfiguration.defaults().withConnected(true)))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    public static class AssociationGraphTest {
+
+        @Test
+        public void shouldJoinPairsOfDistinctVerticesWithTheSameAdjacency() {
+            // Edge 0-1 and path 0-1-2
+            Graph edge = Graph.labelled(2, new int[2], new int[][] { { 0, 1 }, { 1, 0 } });
+            Graph path = Graph.labelled(3, new int[3], new int[][] { { 0, 1, 0 }, { 1, 0, 1 }, { 0, 1, 0 } });
+
+            AssociationGraph graph = AssociationGraph.of(edge, path, Budget.unlimited());
+
+            assertThat(graph.v1).hasSize(6);
+            for (int i = 0; i < 6; i++) {
+                for (int j = 0; j < 6; j++) {
+                    boolean adjacent = graph.v1[i] != graph.v1[j] && graph.v2[i] != graph.v2[j]
+                            && edge.M[graph.v1[i]][graph.v1[j]] == path.M[graph.v2[i]][graph.v2[j]];
+                    assertThat(Bitsets.contains(graph.neighbors[i], j)).isEqualTo(adjacent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class BitsetsTest {
+
+    @Test
+    public void shouldCreateAdjacencyRows() {
+        long[][] rows = Bitsets.adjacencyRows(CASE1.g1);
+
+        assertThat(rows).hasDimensions(8, 1);
+        for (int v = 0; v < 8; v++) {
+            for (int w = 0; w < 8; w++) {
+                assertThat(Bitsets.contains(rows[v], w)).isEqualTo(CASE1.g1.M[v][w] == 1);
+            }
+            assertThat(Bitsets.cardinality(rows[v])).isEqualTo(CASE1.g1.degreeOf(v));
+        }
+    }
+
+    @Test
+    public void shouldStoreVerticesInManyWords() {
+        long[] set = new long[Bitsets.words(130)];
+        Bitsets.add(set, 0);
+        Bitsets.add(set, 63);
+        Bitsets.add(set, 64);
+        Bitsets.add(set, 129);
+
+        assertThat(set).hasSize(3);
+        assertThat(Bitsets.contains(set, 63)).isTrue();
+        assertThat(Bitsets.contains(set, 64)).isTrue();
+        assertThat(Bitsets.contains(set, 65)).isFalse();
+        assertThat(Bitsets.cardinality(set)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,111 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import anc.TestData.TestCase;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+import anc.models.Pair;
+import anc.models.Restarts;
+
+public class CheckpointTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldFindOptimumWhenEveryRunResumesFromTheLastOne() {
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            for (McSplitConfiguration configuration : newArrayList(McSplitConfiguration.defaults(),
+                    McSplitConfiguration.defaults().withSymmetryBreaking(true),
+                    McSplitConfiguration.defaults().withRestarts(Restarts.LUBY))) {
+                MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+                String path = newPath();
+                McSplit mcSplit = new McSplit(configuration.withCheckpoint(path, 0).withResume(true).withNodeLimit(20));
+
+                MaximumCommonSubgraph mcs = mcSplit.compute(testCase.g1, testCase.g2);
+                for (int run = 0; run < 1000 && !mcs.isOptimal(); run++) {
+                    mcs = mcSplit.compute(testCase.g1, testCase.g2);
+                }
+
+                assertThat(mcs.isOptimal()).isTrue();
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertInducedCommonSubgraph(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldReturnSavedOptimumOnceSearchFinished() {
+        String path = newPath();
+        McSplitConfiguration configuration = McSplitConfiguration.defaults().withCheckpoint(path, 60_000);
+        MaximumCommonSubgraph expected = new McSplit(configuration).compute(CASE1.g1, CASE1.g2);
+
+        MaximumCommonSubgraph mcs = new McSplit(configuration.withResume(true).withNodeLimit(1)).compute(CASE1.g1,
+                CASE1.g2);
+
+        assertThat(mcs.M).isEqualTo(expected.M);
+        assertThat(mcs.isOptimal()).isTrue();
+    }
+
+    @Test
+    public void shouldStartFromScratchWithoutCheckpointFile() {
+        String path = newPath();
+        McSplitConfiguration configuration = McSplitConfiguration.defaults().withCheckpoint(path, 60_000)
+                .withResume(true);
+
+        MaximumCommonSubgraph mcs = new McSplit(configuration).compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.M).hasSize(6);
+        assertThat(Checkpoint.load(path, CASE1.g1, CASE1.g2).finished).isTrue();
+    }
+
+    @Test
+    public void shouldSaveAndLoadStateOfSearch() {
+        String path = newPath();
+        Nogoods nogoods = new Nogoods(8, 8);
+        nogoods.add(new int[] { 1, 2 }, new int[] { 3, 4 }, 2, 5, new long[] { 0b1010 });
+
+        Checkpoint.save(path, CASE1.g1, CASE1.g2, newArrayList(new Pair(1, 3), new Pair(2, 4)), nogoods, false);
+        Checkpoint checkpoint = Checkpoint.load(path, CASE1.g1, CASE1.g2);
+
+        assertThat(checkpoint.pairs).containsExactly(new Pair(1, 3), new Pair(2, 4));
+        assertThat(checkpoint.finished).isFalse();
+        assertThat(checkpoint.nogoods.size()).isEqualTo(1);
+        int[] depthOf = new int[8];
+        depthOf[1] = 0;
+        depthOf[2] = 1;
+        depthOf[5] = 2;
+        assertThat(checkpoint.nogoods.isRefuted(new int[] { 1, 2, 5 }, new int[] { 3, 4, 3 }, depthOf, 2)).isTrue();
+        assertThat(checkpoint.nogoods.isRefuted(new int[] { 1, 2, 5 }, new int[] { 3, 4, 2 }, depthOf, 2)).isFalse();
+    }
+
+    @Test
+    public void shouldRejectCheckpointOfOtherGraphs() {
+        String path = newPath();
+        Checkpoint.save(path, CASE1.g1, CASE1.g2, newArrayList(), new Nogoods(8, 8), false);
+
+        assertThatThrownBy(() -> Checkpoint.load(path, CASE1.g2, CASE1.g1))
+                .hasMessageContaining("was not saved for these graphs");
+    }
+
+    @Test
+    public void shouldNotCheckpointInParallel() {
+        assertThatThrownBy(() -> new McSplit(McSplitConfiguration.defaults().withThreads(2).withCheckpoint("x", 0)))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private String newPath() {
+        return folder.getRoot().toPath().resolve("checkpoint" + folder.getRoot().list().length).toString();
+    }
+}
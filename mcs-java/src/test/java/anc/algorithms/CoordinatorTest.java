@@ -0,0 +1,94 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import anc.TestData.TestCase;
+import anc.algorithms.McSplit.LabelClasses;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+import anc.models.Restarts;
+
+public class CoordinatorTest {
+
+    @Test
+    public void shouldFindOptimumWithWorkers() {
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            for (McSplitConfiguration configuration : newArrayList(
+                    McSplitConfiguration.defaults().withWorkers(2, 1),
+                    McSplitConfiguration.defaults().withWorkers(2, 2).withSymmetryBreaking(true),
+                    McSplitConfiguration.defaults().withWorkers(1, 3).withComplementDensity(0))) {
+                MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+
+                MaximumCommonSubgraph mcs = new McSplit(configuration).compute(testCase.g1, testCase.g2);
+
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertThat(mcs.isOptimal()).isTrue();
+                assertInducedCommonSubgraph(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindConnectedOptimumWithWorkers() {
+        McSplitConfiguration configuration = McSplitConfiguration.defaults().withConnected(true);
+        MaximumCommonSubgraph expected = new McSplit(configuration).compute(CASE4.g1, CASE4.g2);
+
+        MaximumCommonSubgraph mcs = new McSplit(configuration.withWorkers(2, 2)).compute(CASE4.g1, CASE4.g2);
+
+        assertThat(mcs.M).hasSameSizeAs(expected.M);
+        assertThat(mcs.isOptimal()).isTrue();
+    }
+
+    @Test
+    public void shouldBoundOptimumWhenStoppedByNodeLimit() {
+        MaximumCommonSubgraph expected = new McSplit().compute(CASE4.g1, CASE4.g2);
+
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withNodeLimit(3).withWorkers(2, 1))
+                .compute(CASE4.g1, CASE4.g2);
+
+        assertThat(mcs.upperBound).isGreaterThanOrEqualTo(expected.M.size());
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldWriteAndReadWorkUnit() throws IOException {
+        LabelClasses labelClasses = LabelClasses.from(CASE2.g1, CASE2.g2);
+        WorkUnit unit = WorkUnit.of(labelClasses, 0, labelClasses.size, new int[] { 4, 1, 0 },
+                new int[] { 2, 3, 0 }, 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        unit.write(new DataOutputStream(bytes));
+
+        WorkUnit read = WorkUnit.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.depth).isEqualTo(2);
+        assertThat(read.M1).containsExactly(4, 1);
+        assertThat(read.M2).containsExactly(2, 3);
+        assertThat(read.bound).isEqualTo(unit.bound);
+        assertThat(read.labelClasses(CASE2.g1.degrees, false, false).toString())
+                .isEqualTo(unit.labelClasses(CASE2.g1.degrees, false, false).toString());
+    }
+
+    @Test
+    public void shouldRejectWorkersWithRestarts() {
+        assertThatThrownBy(() -> new McSplit(
+                McSplitConfiguration.defaults().withRestarts(Restarts.LUBY).withWorkers(2, 1)))
+                        .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> new McSplit(McSplitConfiguration.defaults().withWorkers(2, 0)))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import anc.TestData.TestCase;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+
+public class DownSearchTest {
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeAsMcSplit() {
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = new DownSearch().compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertThat(mcs.isOptimal()).isTrue();
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldMatchIdenticalGraphsWhole() {
+        MaximumCommonSubgraph mcs = new DownSearch().compute(CASE1.g1, CASE1.g1);
+
+        assertThat(mcs.M).hasSize(8);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnUpperBoundOfRefutedSizesWhenBudgetRunsOut() {
+        MaximumCommonSubgraph mcs = new DownSearch(McSplitConfiguration.defaults().withNodeLimit(1))
+                .compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(mcs.upperBound).isGreaterThanOrEqualTo(6);
+    }
+
+    @Test
+    public void shouldFindSubgraphOfGivenSizeOnlyIfItExists() {
+        McSplit mcSplit = new McSplit();
+
+        assertThat(mcSplit.findOfSize(CASE1.g1, CASE1.g2, 7, Budget.unlimited())).isNull();
+        assertThat(mcSplit.findOfSize(CASE1.g1, CASE1.g2, 6, Budget.unlimited())).hasSize(6);
+    }
+}
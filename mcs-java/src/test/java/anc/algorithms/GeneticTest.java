@@ -7,17 +7,25 @@ import static anc.TestData.CASE4;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import anc.algorithms.Genetic.DistanceMatrix;
 import anc.algorithms.Genetic.Genome;
 import anc.algorithms.Genetic.Population;
+import anc.models.GeneticConfiguration;
+import anc.models.Graph;
 import anc.models.MaximumCommonSubgraph;
 import anc.models.Pair;
 
 public class GeneticTest {
-    protected static int[][] EMPTY_D = new int[][] {};
+    protected static DistanceMatrix EMPTY_D = DistanceMatrix.of(new int[][] {});
 
     @Test
     public void shouldFindMaximumCommonSubgraphForTestCase1() {
@@ -72,6 +80,29 @@ public class GeneticTest {
         System.out.println(mcs.M);
     }
 
+    @Test
+    public void shouldEvolveReproduciblyForTheSameSeed() {
+        Genetic genetic = new Genetic(64, 64, 8, 4, 0.9, 0.5, 7);
+
+        MaximumCommonSubgraph first = genetic.compute(CASE4.g1, CASE4.g2);
+        MaximumCommonSubgraph second = new Genetic(64, 64, 8, 4, 0.9, 0.5, 7).compute(CASE4.g1, CASE4.g2);
+        MaximumCommonSubgraph third = genetic.compute(CASE4.g1, CASE4.g2);
+
+        assertThat(second.M).isEqualTo(first.M);
+        assertThat(second.bestGenome).isEqualTo(first.bestGenome);
+        assertThat(third.bestGenome).isEqualTo(first.bestGenome);
+    }
+
+    @Test
+    public void shouldTakeSeedFromConfiguration() {
+        GeneticConfiguration configuration = new GeneticConfiguration(64, 64, 8, 4, 0.9, 0.5).withSeed(7);
+
+        MaximumCommonSubgraph mcs = Genetic.fromConfiguration(configuration).compute(CASE4.g1, CASE4.g2);
+
+        assertThat(mcs.bestGenome)
+                .isEqualTo(new Genetic(64, 64, 8, 4, 0.9, 0.5, 7).compute(CASE4.g1, CASE4.g2).bestGenome);
+    }
+
     @Test
     public void shouldComputeDistanceMatrix() {
         int[][] D = Genetic.createDistanceMatrix(CASE3.g1);
@@ -82,20 +113,45 @@ public class GeneticTest {
 
     @Test
     public void shouldCalculateScore() {
-        int[][] D1 = new int[][] { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 9 } };
-        int[][] D2 = new int[][] { { 9, 8, 7 }, { 6, 5, 4 }, { 3, 2, 1 } };
-        List<Integer> genes = newArrayList(1, 2, 0);
+        DistanceMatrix D1 = DistanceMatrix.of(new int[][] { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 9 } });
+        DistanceMatrix D2 = DistanceMatrix.of(new int[][] { { 9, 8, 7 }, { 6, 5, 4 }, { 3, 2, 1 } });
+        int[] genes = new int[] { 1, 2, 0 };
 
         int score = Genetic.fitnessFunction(D1, D2, genes);
 
         assertThat(score).isEqualTo(20);
     }
 
+    @Test
+    public void shouldComputeSwapDeltaAsChangeOfScore() {
+        DistanceMatrix asymmetric1 = DistanceMatrix.of(new int[][] { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 9 } });
+        DistanceMatrix asymmetric2 = DistanceMatrix
+                .of(new int[][] { { 9, 8, 7, 1 }, { 6, 5, 4, 2 }, { 3, 2, 1, 3 }, { 0, 4, 2, 5 } });
+        DistanceMatrix case4D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g1));
+        DistanceMatrix case4D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g2));
+        for (DistanceMatrix[] D : newArrayList(new DistanceMatrix[] { asymmetric1, asymmetric2 },
+                new DistanceMatrix[] { case4D1, case4D2 })) {
+            int[] genes = IntStream.range(0, D[1].n).map(i -> D[1].n - 1 - i).toArray();
+            for (int index1 = 0; index1 < genes.length; index1++) {
+                for (int index2 = 0; index2 < genes.length; index2++) {
+                    int[] swapped = genes.clone();
+                    swapped[index1] = genes[index2];
+                    swapped[index2] = genes[index1];
+
+                    int delta = Genetic.swapDelta(D[0], D[1], genes, index1, index2);
+
+                    assertThat(delta).isEqualTo(
+                            Genetic.fitnessFunction(D[0], D[1], swapped) - Genetic.fitnessFunction(D[0], D[1], genes));
+                }
+            }
+        }
+    }
+
     @Test
     public void shouldReduceToMaximumCommonSubgraph() {
-        int[][] D1 = Genetic.createDistanceMatrix(CASE4.g1);
-        int[][] D2 = Genetic.createDistanceMatrix(CASE4.g2);
-        List<Integer> genes = newArrayList(0, 5, 3, 2, 1);
+        DistanceMatrix D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g1));
+        DistanceMatrix D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g2));
+        int[] genes = new int[] { 0, 5, 3, 2, 1 };
 
         List<Pair> reduced = Genetic.reduceFunction(D1, D2, genes);
 
@@ -104,9 +160,9 @@ public class GeneticTest {
 
     @Test
     public void shouldReduceToCommonSubgraph() {
-        int[][] D1 = Genetic.createDistanceMatrix(CASE4.g1);
-        int[][] D2 = Genetic.createDistanceMatrix(CASE4.g2);
-        List<Integer> genes = newArrayList(2, 5, 3, 0, 1);
+        DistanceMatrix D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g1));
+        DistanceMatrix D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g2));
+        int[] genes = new int[] { 2, 5, 3, 0, 1 };
 
         List<Pair> reduced = Genetic.reduceFunction(D1, D2, genes);
 
@@ -115,9 +171,9 @@ public class GeneticTest {
 
     @Test
     public void shouldReduceForIdenticalGraphs() {
-        int[][] D1 = Genetic.createDistanceMatrix(CASE1.g1);
-        int[][] D2 = Genetic.createDistanceMatrix(CASE1.g1);
-        List<Integer> genes = newArrayList(0, 1, 2, 3, 4, 5, 6, 7);
+        DistanceMatrix D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE1.g1));
+        DistanceMatrix D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE1.g1));
+        int[] genes = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
 
         List<Pair> reduced = Genetic.reduceFunction(D1, D2, genes);
 
@@ -125,12 +181,107 @@ public class GeneticTest {
                 new Pair(5, 5), new Pair(6, 6), new Pair(7, 7));
     }
 
+    @Test
+    public void shouldReduceToVerticesOfTheSameLabel() {
+        int[] labels1 = new int[] { 0, 0, 0, 0, 0, 0, 0, 1 };
+        int[] labels2 = new int[] { 0, 0, 0, 0, 0, 0, 0, 2 };
+        Graph g1 = new Graph(CASE1.g1.n, CASE1.g1.M, labels1, CASE1.g1.M);
+        Graph g2 = new Graph(CASE1.g1.n, CASE1.g1.M, labels2, CASE1.g1.M);
+        DistanceMatrix D1 = DistanceMatrix
+                .of(Genetic.createDistanceMatrix(g1, new int[] { 0, 1, 2 }, new int[] { 0, 1 }));
+        DistanceMatrix D2 = DistanceMatrix
+                .of(Genetic.createDistanceMatrix(g2, new int[] { 0, 1, 2 }, new int[] { 0, 1 }));
+        int[] genes = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+        List<Pair> reduced = Genetic.reduceFunction(D1, D2, genes);
+
+        assertThat(Genetic.fitnessFunction(D1, D2, genes)).isEqualTo(1);
+        assertThat(reduced).containsOnly(new Pair(0, 0), new Pair(1, 1), new Pair(2, 2), new Pair(3, 3), new Pair(4, 4),
+                new Pair(5, 5), new Pair(6, 6));
+    }
+
+    @Test
+    public void shouldReduceAsTheQuarticReduceFunction() {
+        Random random = new Random(0);
+        for (int trial = 0; trial < 500; trial++) {
+            int n2 = 2 + random.nextInt(14);
+            int n1 = 1 + random.nextInt(n2);
+            Graph g2 = randomGraph(random, n2, random.nextDouble());
+            // Induced subgraphs of g2 with a few edges flipped, so that mappings are big but not whole
+            int[] genes = IntStream.range(0, n2).toArray();
+            Genetic.shuffle(genes, new SplittableRandom(trial));
+            int[][] M1 = new int[n1][n1];
+            for (int i = 0; i < n1; i++) {
+                for (int j = 0; j < i; j++) {
+                    M1[i][j] = M1[j][i] = g2.M[genes[i]][genes[j]] ^ (random.nextInt(n1 * 2) == 0 ? 1 : 0);
+                }
+            }
+            DistanceMatrix D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(new Graph(n1, M1)));
+            DistanceMatrix D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(g2));
+            if (trial % 2 == 1) {
+                Genetic.shuffle(genes, new SplittableRandom(-trial));
+            }
+
+            assertThat(Genetic.reduceFunction(D1, D2, genes)).isEqualTo(quarticReduceFunction(D1, D2, genes));
+        }
+    }
+
+    /** Reduce function as it was before disagreements were kept as bitsets */
+    private static List<Pair> quarticReduceFunction(DistanceMatrix D1, DistanceMatrix D2, int[] genes) {
+        final int n1 = D1.n;
+        final int[] skipped = new int[n1];
+        Arrays.fill(skipped, -1);
+        List<Pair> M = new ArrayList<>();
+        for (int skip = 0; skip < n1 - 1; skip++) {
+            for (int i = 0; i < skip; i++) {
+                skipped[i] = skip;
+            }
+            for (int i = skip; i < n1; i++) {
+                int tmpSum = 0;
+                for (int j = skip; j <= i; j++) {
+                    if (skipped[j] == skip) {
+                        continue;
+                    }
+                    for (int k = skip; k <= i; k++) {
+                        if (skipped[k] == skip) {
+                            continue;
+                        }
+                        tmpSum += Math.abs(D1.get(j, k) - D2.get(genes[j], genes[k]));
+                    }
+                }
+                if (tmpSum > 0) {
+                    skipped[i] = skip;
+                }
+            }
+            final List<Pair> Mcandidate = new ArrayList<>();
+            for (int i = 0; i < n1; i++) {
+                if (skipped[i] < skip) {
+                    Mcandidate.add(new Pair(i, genes[i]));
+                }
+            }
+            if (M.size() < Mcandidate.size()) {
+                M = Mcandidate;
+            }
+        }
+        return M;
+    }
+
+    private static Graph randomGraph(Random random, int n, double density) {
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                M[i][j] = M[j][i] = random.nextDouble() < density ? 1 : 0;
+            }
+        }
+        return new Graph(n, M);
+    }
+
     public static class GenomeTest {
 
         @Test
         public void shouldCrossover() {
-            Genome genome1 = Genome.create(newArrayList(0, 1, 2, 3, 4, 5, 6, 7), EMPTY_D, EMPTY_D);
-            Genome genome2 = Genome.create(newArrayList(7, 4, 1, 0, 2, 5, 3, 6), EMPTY_D, EMPTY_D);
+            Genome genome1 = Genome.create(new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, EMPTY_D, EMPTY_D);
+            Genome genome2 = Genome.create(new int[] { 7, 4, 1, 0, 2, 5, 3, 6 }, EMPTY_D, EMPTY_D);
 
             List<Genome> children = genome1.crossover(genome2);
 
@@ -140,6 +291,22 @@ public class GeneticTest {
             assertThat(children.get(2).genes).containsExactly(0, 4, 1, 3, 2, 5, 6, 7);
             assertThat(children.get(3).genes).containsExactly(7, 1, 2, 0, 4, 5, 3, 6);
         }
+
+        @Test
+        public void shouldKeepScoreOfMutatedGenome() {
+            DistanceMatrix D1 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g1));
+            DistanceMatrix D2 = DistanceMatrix.of(Genetic.createDistanceMatrix(CASE4.g2));
+            Genome genome = Genome.create(new int[] { 5, 4, 3, 2, 1, 0 }, D1, D2);
+            SplittableRandom random = new SplittableRandom(0);
+
+            for (int i = 0; i < 100; i++) {
+                int oldScore = genome.score;
+                genome.mutate(random);
+
+                assertThat(genome.score).isEqualTo(Genetic.fitnessFunction(D1, D2, genome.genes))
+                        .isGreaterThanOrEqualTo(oldScore);
+            }
+        }
     }
 
     public static class PopulationTest {
@@ -149,7 +316,7 @@ public class GeneticTest {
             int nGenomes = 4;
             int n2 = 3;
 
-            Population population = Population.generate(nGenomes, n2, 2, EMPTY_D, EMPTY_D);
+            Population population = Population.generate(nGenomes, n2, 2, EMPTY_D, EMPTY_D, new SplittableRandom(0));
 
             assertThat(population.genomes).hasSize(4);
             for (int i = 0; i < 4; i++) {
@@ -159,16 +326,16 @@ public class GeneticTest {
 
         @Test
         public void shouldShuffleWithinTribes() {
-            Genome genome1 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
-            Genome genome2 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
-            Genome genome3 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
-            Genome genome4 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
-            Genome genome5 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
-            Genome genome6 = new Genome(newArrayList(), EMPTY_D, EMPTY_D, 0);
+            Genome genome1 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
+            Genome genome2 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
+            Genome genome3 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
+            Genome genome4 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
+            Genome genome5 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
+            Genome genome6 = new Genome(new int[0], EMPTY_D, EMPTY_D, 0);
             Population population = new Population(newArrayList(genome1, genome2, genome3, genome4, genome5, genome6),
                     3);
 
-            population.shuffleWithinTribe();
+            population.shuffleWithinTribe(new SplittableRandom(0));
 
             assertThat(population.genomes.subList(0, 2)).containsOnly(genome1, genome2);
             assertThat(population.genomes.subList(2, 4)).containsOnly(genome3, genome4);
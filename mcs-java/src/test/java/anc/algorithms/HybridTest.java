@@ -0,0 +1,71 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+import anc.models.Pair;
+
+public class HybridTest {
+    private static final List<Pair> CASE4_MCS = newArrayList(new Pair(0, 1), new Pair(1, 2), new Pair(2, 4),
+            new Pair(4, 0));
+
+    @Test
+    public void shouldReturnSeedWhenItIsMaximum() {
+        Hybrid hybrid = new Hybrid((g1, g2) -> new MaximumCommonSubgraph(CASE4_MCS, g1, g2), new McSplit());
+
+        MaximumCommonSubgraph mcs = hybrid.compute(CASE4.g1, CASE4.g2);
+
+        assertThat(mcs.M).isEqualTo(CASE4_MCS);
+        assertThat(mcs.isOptimal()).isTrue();
+    }
+
+    @Test
+    public void shouldImproveSeedThatIsNotMaximum() {
+        List<Pair> seed = newArrayList(new Pair(0, 1), new Pair(1, 2));
+        Hybrid hybrid = new Hybrid((g1, g2) -> new MaximumCommonSubgraph(seed, g1, g2), new McSplit());
+
+        MaximumCommonSubgraph mcs = hybrid.compute(CASE4.g1, CASE4.g2);
+
+        assertThat(mcs.M).hasSize(4);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldIgnoreSeedThatIsNotInducedCommonSubgraph() {
+        // Vertices 0 and 1 are adjacent in g1 of case 1, but 0 and 4 are not adjacent in g2
+        List<Pair> seed = newArrayList(new Pair(0, 0), new Pair(1, 4));
+        Hybrid hybrid = new Hybrid((g1, g2) -> new MaximumCommonSubgraph(seed, g1, g2), new McSplit());
+
+        MaximumCommonSubgraph mcs = hybrid.compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.M).isEqualTo(new McSplit().compute(CASE1.g1, CASE1.g2).M);
+    }
+
+    @Test
+    public void shouldKeepSeedWhenSearchRunsOutOfBudget() {
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withNodeLimit(1))
+                .compute(CASE4.g1, CASE4.g2, CASE4_MCS);
+
+        assertThat(mcs.M).isEqualTo(CASE4_MCS);
+    }
+
+    @Test
+    public void shouldValidateInducedCommonSubgraph() {
+        assertThat(Hybrid.isInducedCommonSubgraph(CASE4_MCS, CASE4.g1, CASE4.g2)).isTrue();
+        assertThat(Hybrid.isInducedCommonSubgraph(newArrayList(), CASE4.g1, CASE4.g2)).isTrue();
+        assertThat(Hybrid.isInducedCommonSubgraph(newArrayList(new Pair(0, 0), new Pair(1, 4)), CASE1.g1, CASE1.g2))
+                .isFalse();
+        assertThat(Hybrid.isInducedCommonSubgraph(newArrayList(new Pair(0, 1), new Pair(1, 1)), CASE4.g1, CASE4.g2))
+                .isFalse();
+        assertThat(Hybrid.isInducedCommonSubgraph(newArrayList(new Pair(0, 100)), CASE4.g1, CASE4.g2)).isFalse();
+    }
+}
@@ -4,17 +4,30 @@ import static anc.TestData.CASE1;
 import static anc.TestData.CASE2;
 import static anc.TestData.CASE3;
 import static anc.TestData.CASE4;
+import static anc.TestData.createAdjacencyMatrix;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.Test;
 
-import anc.algorithms.McSplit.LabelClass;
+import com.google.common.collect.ImmutableListMultimap;
+
+import anc.TestData.TestCase;
 import anc.algorithms.McSplit.LabelClasses;
+import anc.algorithms.McSplit.Problem;
+import anc.algorithms.McSplit.Search;
+import anc.models.Branching;
+import anc.models.Graph;
 import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
 import anc.models.Pair;
+import anc.models.Restarts;
 
 public class McSplitTest {
 
@@ -46,14 +59,16 @@ public class McSplitTest {
 
     @Test
     public void shouldComputeMaximumCommonSubgraphForGraphsWhereFirstIsBigger() {
-        MaximumCommonSubgraph mcs = new McSplit().compute(CASE3.g2, CASE3.g1);
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withComplementDensity(1))
+                .compute(CASE3.g2, CASE3.g1);
 
         assertThat(mcs.M).containsOnly(new Pair(0, 3), new Pair(2, 2), new Pair(3, 1), new Pair(4, 0), new Pair(5, 4));
     }
 
     @Test
     public void shouldComputeMaximumCommonSubgraphForCase4() {
-        MaximumCommonSubgraph mcs = new McSplit().compute(CASE4.g1, CASE4.g2);
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withComplementDensity(1))
+                .compute(CASE4.g1, CASE4.g2);
 
         assertThat(mcs.M).satisfiesAnyOf(
             M -> assertThat(mcs.M).containsOnly(new Pair(0, 0), new Pair(1, 5), new Pair(2, 3), new Pair(4, 1)),
@@ -68,123 +83,496 @@ public class McSplitTest {
                 new Pair(5, 5), new Pair(6, 6), new Pair(7, 7));
     }
 
-    public static class LabelClassTest {
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeInParallel() {
+        McSplit parallel = new McSplit(McSplitConfiguration.defaults().withThreads(4));
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = parallel.compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphForIdenticalGraphsInParallel() {
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withThreads(4)).compute(CASE1.g1,
+                CASE1.g1);
+
+        assertThat(mcs.M).hasSize(8);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnBestSubgraphFoundAndUpperBoundWhenNodeLimitIsReached() {
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withNodeLimit(1)).compute(CASE1.g1,
+                CASE1.g2);
+
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(mcs.upperBound).isGreaterThanOrEqualTo(6);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnOptimalSubgraphWhenSearchEndsWithinTimeLimit() {
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withTimeLimit(60_000))
+                .compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.isOptimal()).isTrue();
+        assertThat(mcs.M).isEqualTo(new McSplit().compute(CASE1.g1, CASE1.g2).M);
+    }
+
+    @Test
+    public void shouldReturnUpperBoundWhenNodeLimitIsReachedInParallel() {
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withThreads(4).withNodeLimit(1))
+                .compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.upperBound).isGreaterThanOrEqualTo(6);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldStopLessThanPollIntervalPastNodeLimitInParallel() {
+        Random random = new Random(1);
+        Graph g1 = randomGraph(random, 30, 0.3);
+        Graph g2 = randomGraph(random, 30, 0.3);
+        SearchStatistics statistics = new SearchStatistics();
+
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withThreads(4).withNodeLimit(20_000))
+                .compute(g1, g2, statistics);
+
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(statistics.nodes()).isLessThan(20_000 + Budget.POLL_INTERVAL);
+    }
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeWithSymmetryBreaking() {
+        McSplit symmetryBreaking = new McSplit(McSplitConfiguration.defaults().withSymmetryBreaking(true));
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = symmetryBreaking.compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertThat(mcs.isOptimal()).isTrue();
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeOnComplements() {
+        McSplit complemented = new McSplit(McSplitConfiguration.defaults().withComplementDensity(0));
+        McSplit notComplemented = new McSplit(McSplitConfiguration.defaults().withComplementDensity(1));
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = notComplemented.compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = complemented.compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertThat(mcs.g1).isSameAs(testCase.g1);
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeWithLearnedBranching() {
+        McSplit learned = new McSplit(McSplitConfiguration.defaults().withBranching(Branching.LEARNED));
+        McSplit learnedInParallel = new McSplit(
+                McSplitConfiguration.defaults().withBranching(Branching.LEARNED).withThreads(4));
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+
+            for (MaximumCommonSubgraph mcs : newArrayList(learned.compute(testCase.g1, testCase.g2),
+                    learnedInParallel.compute(testCase.g1, testCase.g2))) {
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertThat(mcs.isOptimal()).isTrue();
+                assertInducedCommonSubgraph(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeWithRestarts() {
+        for (Restarts restarts : newArrayList(Restarts.LUBY, Restarts.GEOMETRIC)) {
+            McSplit restarted = new McSplit(McSplitConfiguration.defaults().withRestarts(restarts));
+
+            for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+                MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+                MaximumCommonSubgraph mcs = restarted.compute(testCase.g1, testCase.g2);
+
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertThat(mcs.isOptimal()).isTrue();
+                assertInducedCommonSubgraph(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindOptimumWhenRunsAreAbortedEarly() {
+        LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+        Problem problem = new Problem(Bitsets.adjacencyRows(CASE1.g1), Bitsets.adjacencyRows(CASE1.g2),
+                Orbits.trivial(8), Orbits.trivial(8));
+        Incumbent incumbent = new Incumbent();
+        Nogoods nogoods = new Nogoods(8, 8);
+
+        int runs = 0;
+        Search search;
+        do {
+            LabelClasses runLabelClasses = labelClasses.copyOf(0, labelClasses.size);
+            search = new Search(problem, runLabelClasses, new DegreeBranching(), new int[8], new int[8], incumbent,
+                    Budget.unlimited()).withRestart(runs + 1, nogoods);
+            search.search(0, runLabelClasses.size, 0);
+            runs++;
+        } while (search.isRestarting());
+
+        assertThat(runs).isGreaterThan(1);
+        assertThat(nogoods.size()).isPositive();
+        assertThat(incumbent.size()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldNotClaimOptimumWhenNodeLimitEndsOnRestart() {
+        // First Luby run is aborted on node 1001, which is also the last node within the limit
+        McSplit restarted = new McSplit(
+                McSplitConfiguration.defaults().withRestarts(Restarts.LUBY).withNodeLimit(1001));
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            Graph g1 = randomGraph(random, 14, 0.2 + random.nextDouble() / 2);
+            Graph g2 = randomGraph(random, 14, 0.2 + random.nextDouble() / 2);
+            MaximumCommonSubgraph expected = new McSplit().compute(g1, g2);
+            MaximumCommonSubgraph mcs = restarted.compute(g1, g2);
+
+            assertThat(mcs.upperBound).isGreaterThanOrEqualTo(expected.M.size());
+            if (mcs.isOptimal()) {
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRespectNodeLimitWithRestarts() {
+        Random random = new Random(1);
+        Graph g1 = randomGraph(random, 30, 0.3);
+        Graph g2 = randomGraph(random, 30, 0.3);
+        SearchStatistics statistics = new SearchStatistics();
+
+        MaximumCommonSubgraph mcs = new McSplit(
+                McSplitConfiguration.defaults().withRestarts(Restarts.LUBY).withNodeLimit(20_000))
+                .compute(g1, g2, statistics);
+
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(statistics.nodes()).isLessThanOrEqualTo(20_000);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldNotRestartInParallel() {
+        new McSplit(McSplitConfiguration.defaults().withRestarts(Restarts.LUBY).withThreads(4));
+    }
+
+    @Test
+    public void shouldComputeConnectedCommonSubgraph() {
+        // Path 0-1-2-3-4 and two disjoint edges share two disjoint edges, but only one edge is connected
+        Graph path = new Graph(5, createAdjacencyMatrix(5,
+                new ImmutableListMultimap.Builder<Integer, Integer>().putAll(0, 1).putAll(1, 2).putAll(2, 3)
+                        .putAll(3, 4).build()));
+        Graph twoEdges = new Graph(4, createAdjacencyMatrix(4,
+                new ImmutableListMultimap.Builder<Integer, Integer>().putAll(0, 1).putAll(2, 3).build()));
+
+        MaximumCommonSubgraph mcs = new McSplit(McSplitConfiguration.defaults().withConnected(true)).compute(path,
+                twoEdges);
+
+        assertThat(new McSplit().compute(path, twoEdges).M).hasSize(4);
+        assertThat(mcs.M).hasSize(2);
+        assertThat(mcs.isOptimal()).isTrue();
+        assertInducedCommonSubgraph(mcs);
+        assertConnected(mcs);
+    }
+
+    @Test
+    public void shouldComputeConnectedCommonSubgraphOfTheSameSizeWithEveryOption() {
+        McSplitConfiguration connected = McSplitConfiguration.defaults().withConnected(true);
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit(connected).compute(testCase.g1, testCase.g2);
+            assertConnected(expected);
+
+            for (McSplitConfiguration configuration : newArrayList(connected.withComplementDensity(0),
+                    connected.withThreads(4), connected.withSymmetryBreaking(true))) {
+                MaximumCommonSubgraph mcs = new McSplit(configuration).compute(testCase.g1, testCase.g2);
+
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertInducedCommonSubgraph(mcs);
+                assertConnected(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchOnlyVerticesAndEdgesOfTheSameLabel() {
+        // Triangles labelled C, C, O and C, O, O share a single C-O edge
+        int[][] triangle = createAdjacencyMatrix(3,
+                new ImmutableListMultimap.Builder<Integer, Integer>().putAll(0, 1, 2).putAll(1, 2).build());
+        Graph g1 = new Graph(3, triangle, new int[] { 6, 6, 8 }, triangle);
+        Graph g2 = new Graph(3, triangle, new int[] { 6, 8, 8 }, triangle);
+        // Paths with single and double bonds 0-1=2 and 0-1-2 share a single bond
+        Graph path1 = Graph.labelled(3, new int[3], new int[][] { { 0, 1, 0 }, { 1, 0, 2 }, { 0, 2, 0 } });
+        Graph path2 = Graph.labelled(3, new int[3], new int[][] { { 0, 1, 0 }, { 1, 0, 1 }, { 0, 1, 0 } });
+
+        for (McSplitConfiguration configuration : newArrayList(McSplitConfiguration.defaults(),
+                McSplitConfiguration.defaults().withComplementDensity(0),
+                McSplitConfiguration.defaults().withSymmetryBreaking(true),
+                McSplitConfiguration.defaults().withThreads(4))) {
+            MaximumCommonSubgraph vertexLabelled = new McSplit(configuration).compute(g1, g2);
+            MaximumCommonSubgraph edgeLabelled = new McSplit(configuration).compute(path1, path2);
+
+            assertThat(vertexLabelled.M).hasSize(2);
+            assertThat(edgeLabelled.M).hasSize(2);
+            assertInducedCommonSubgraph(vertexLabelled);
+            assertInducedCommonSubgraph(edgeLabelled);
+        }
+    }
+
+    static Graph randomGraph(Random random, int n, double density) {
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                M[i][j] = M[j][i] = random.nextDouble() < density ? 1 : 0;
+            }
+        }
+        return new Graph(n, M);
+    }
+
+    static void assertConnected(MaximumCommonSubgraph mcs) {
+        if (mcs.M.isEmpty()) {
+            return;
+        }
+        Set<Integer> reached = new HashSet<>(newArrayList(mcs.M.get(0).v1));
+        Deque<Integer> queue = new ArrayDeque<>(reached);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (Pair p : mcs.M) {
+                if (mcs.g1.M[v][p.v1] == 1 && reached.add(p.v1)) {
+                    queue.add(p.v1);
+                }
+            }
+        }
+        assertThat(reached).hasSameSizeAs(mcs.M);
+    }
+
+    static void assertInducedCommonSubgraph(MaximumCommonSubgraph mcs) {
+        assertThat(mcs.M).extracting(p -> p.v1).doesNotHaveDuplicates().isSorted();
+        assertThat(mcs.M).extracting(p -> p.v2).doesNotHaveDuplicates();
+        for (Pair p : mcs.M) {
+            assertThat(mcs.g1.vertexLabels[p.v1]).isEqualTo(mcs.g2.vertexLabels[p.v2]);
+            for (Pair q : mcs.M) {
+                assertThat(mcs.g1.M[p.v1][q.v1]).isEqualTo(mcs.g2.M[p.v2][q.v2]);
+                assertThat(mcs.g1.edgeLabels[p.v1][q.v1]).isEqualTo(mcs.g2.edgeLabels[p.v2][q.v2]);
+            }
+        }
+    }
+
+    public static class LabelClassesTest {
 
         @Test
-        public void shouldComputeMaxDegreeVertexForG() {
-            List<Integer> G = Arrays.asList(0, 2, 6);
-            List<Integer> H = Arrays.asList(1, 2, 3);
+        public void shouldCreateLabelClassesFromTwoGraphs() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+
+            assertThat(labelClasses.size).isEqualTo(1);
+            assertThat(labelClasses.verticesOfG(0)).containsOnly(0, 1, 2, 3, 4, 5, 6, 7);
+            assertThat(labelClasses.verticesOfH(0)).containsOnly(0, 1, 2, 3, 4, 5, 6, 7);
+        }
+
+        @Test
+        public void shouldCreateLabelClassPerCommonVertexLabel() {
+            Graph g1 = new Graph(4, new int[4][4], new int[] { 2, 1, 2, 3 }, new int[4][4]);
+            Graph g2 = new Graph(3, new int[3][3], new int[] { 2, 2, 1 }, new int[3][3]);
 
-            LabelClass labelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+            LabelClasses labelClasses = LabelClasses.from(g1, g2);
 
-            assertThat(labelClass.selectVertexFromG()).isEqualTo(6);
-            assertThat(labelClass.maxDegreeVertexG).isEqualTo(6);
-            assertThat(labelClass.maxDegreeG).isEqualTo(3);
+            assertThat(labelClasses.size).isEqualTo(2);
+            assertThat(labelClasses.verticesOfG(0)).containsOnly(1);
+            assertThat(labelClasses.verticesOfH(0)).containsOnly(2);
+            assertThat(labelClasses.verticesOfG(1)).containsOnly(0, 2);
+            assertThat(labelClasses.verticesOfH(1)).containsOnly(0, 1);
         }
 
         @Test
-        public void shouldCopyWithoutVertexFromG() {
-            int vertex = 5;
-            List<Integer> G = Arrays.asList(0, 2, vertex);
-            List<Integer> H = Arrays.asList(1, 2, 3);
-            LabelClass existingLabelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+        public void shouldComputeMaxDegreeVertexForG() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
 
-            LabelClass copy = existingLabelClass.copyWithoutVertexFromG(vertex);
+            assertThat(labelClasses.selectVertexFromG(0)).isEqualTo(1);
+            assertThat(labelClasses.maxDegreeVertexG[0]).isEqualTo(1);
+            assertThat(labelClasses.maxDegreeG[0]).isEqualTo(4);
+        }
 
-            assertThat(copy.G).containsExactly(0, 2);
+        @Test
+        public void shouldBreakMaxDegreeTiesBySmallestVertex() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.removeVertexFromG(0, 1);
+            labelClasses.removeVertexFromG(0, 3);
+            labelClasses.removeVertexFromG(0, 6);
+            labelClasses.updateMaxDegree(0);
+
+            assertThat(labelClasses.verticesOfG(0)).containsOnly(0, 2, 4, 5, 7);
+            assertThat(labelClasses.selectVertexFromG(0)).isEqualTo(2);
+            assertThat(labelClasses.maxDegreeG[0]).isEqualTo(2);
         }
 
         @Test
-        public void shouldFindAllNeighborsFromG() {
-            int vertex = 6;
-            List<Integer> G = Arrays.asList(0, 5, vertex);
-            List<Integer> H = Arrays.asList(1, 2, 5);
-            LabelClass labelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+        public void shouldSplitIntoNeighborsAndNotNeighbors() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.removeVertexFromG(0, 6);
+            labelClasses.sizeH[0]--;
+            int w = labelClasses.moveNextVertexFromHToEnd(0, -1);
+
+            int to = labelClasses.split(0, 1, Bitsets.adjacencyRows(CASE1.g1)[6], Bitsets.adjacencyRows(CASE1.g2)[w]);
+
+            assertThat(w).isEqualTo(0);
+            assertThat(to).isEqualTo(3);
+            assertThat(labelClasses.verticesOfG(1)).containsOnly(3, 5, 7);
+            assertThat(labelClasses.verticesOfH(1)).containsOnly(1, 7);
+            assertThat(labelClasses.verticesOfG(2)).containsOnly(0, 1, 2, 4);
+            assertThat(labelClasses.verticesOfH(2)).containsOnly(2, 3, 4, 5, 6);
+        }
 
-            List<Integer> neighbors = labelClass.neighborsFromGOf(vertex);
+        @Test
+        public void shouldMoveVerticesFromHInAscendingOrder() {
+            LabelClasses labelClasses = LabelClasses.from(CASE2.g1, CASE2.g2);
+            labelClasses.sizeH[0]--;
 
-            assertThat(neighbors).containsOnly(5);
+            assertThat(labelClasses.moveNextVertexFromHToEnd(0, -1)).isEqualTo(0);
+            assertThat(labelClasses.moveNextVertexFromHToEnd(0, 0)).isEqualTo(1);
+            assertThat(labelClasses.moveNextVertexFromHToEnd(0, 1)).isEqualTo(2);
         }
 
         @Test
-        public void shouldFindAllNeighborsFromH() {
-            int vertex = 1;
-            List<Integer> G = Arrays.asList(0, 5, 6);
-            List<Integer> H = Arrays.asList(vertex, 2, 5);
-            LabelClass labelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+        public void shouldSumPairsOfVertices() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.add(0, 2, 0, 3);
+            labelClasses.add(2, 3, 3, 0);
 
-            List<Integer> neighbors = labelClass.neighborsFromHOf(vertex);
+            int sumPairsOfVertices = labelClasses.sumPairsOfVertices(1, 3);
 
-            assertThat(neighbors).containsOnly(2);
+            assertThat(sumPairsOfVertices).isEqualTo(2);
         }
 
         @Test
-        public void shouldFindAllNotNeighborsFromG() {
-            int vertex = 6;
-            List<Integer> G = Arrays.asList(0, 5, vertex);
-            List<Integer> H = Arrays.asList(1, 2, 5);
-            LabelClass labelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+        public void shouldSelectLabelClassWithLargestMaxGH() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.add(0, 2, 0, 3);
+            labelClasses.add(2, 2, 3, 0);
+            labelClasses.heapify(1, 3);
 
-            List<Integer> neighbors = labelClass.notNeighborsFromGOf(vertex);
+            int selected = labelClasses.select(1);
 
-            assertThat(neighbors).containsOnly(0);
+            assertThat(selected).isEqualTo(1);
         }
 
         @Test
-        public void shouldFindAllNotNeighborsFromH() {
-            int vertex = 1;
-            List<Integer> G = Arrays.asList(0, 5, 6);
-            List<Integer> H = Arrays.asList(vertex, 2, 5);
-            LabelClass labelClass = new LabelClass(CASE1.g1, CASE1.g2, G, H);
+        public void shouldSelectLabelClassWithVertexInGWithHighestDegree() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            // G of first class is {4, 5, 6}, G of second one is {1, 2, 3}
+            labelClasses.add(4, 3, 0, 3);
+            labelClasses.add(1, 3, 3, 3);
+            labelClasses.heapify(1, 3);
 
-            List<Integer> neighbors = labelClass.notNeighborsFromHOf(vertex);
+            int selected = labelClasses.select(1);
 
-            assertThat(neighbors).containsOnly(5);
+            assertThat(selected).isEqualTo(2);
+            assertThat(labelClasses.maxDegreeG[selected]).isEqualTo(4);
         }
-    }
 
-    public static class LabalClassesTest {
+        @Test
+        public void shouldSelectFirstOfEqualLabelClasses() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            // G of both classes has a vertex of degree 4
+            labelClasses.add(0, 3, 0, 3);
+            labelClasses.add(3, 3, 3, 3);
+            labelClasses.heapify(1, 3);
+
+            assertThat(labelClasses.select(1)).isEqualTo(1);
+        }
 
         @Test
-        public void shouldCreateLabelClassesFromTwoGraphs() {
+        public void shouldMoveSelectedLabelClassToEnd() {
             LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.add(0, 3, 0, 3);
+            labelClasses.add(3, 3, 3, 3);
+            labelClasses.heapify(1, 3);
+
+            int to = labelClasses.moveToEnd(1, 2, 3);
 
-            assertThat(labelClasses.labelClasses).hasSize(1);
-            assertThat(labelClasses.labelClasses.get(0).G).containsOnly(0, 1, 2, 3, 4, 5, 6, 7);
-            assertThat(labelClasses.labelClasses.get(0).H).containsOnly(0, 1, 2, 3, 4, 5, 6, 7);
+            assertThat(to).isEqualTo(4);
+            assertThat(labelClasses.sizeG[1]).isZero();
+            assertThat(labelClasses.verticesOfG(3)).containsOnly(0, 1, 2);
+            assertThat(labelClasses.select(1)).isEqualTo(2);
         }
 
         @Test
-        public void shouldSumPairsOfVertices() {
-            LabelClass lb1 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(0, 1), Arrays.asList(0, 1, 2));
-            LabelClass lb2 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(2, 3, 4), Arrays.asList());
-            LabelClasses labelClasses = new LabelClasses(Arrays.asList(lb1, lb2));
+        public void shouldRemoveSelectedLabelClass() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            labelClasses.add(0, 3, 0, 3);
+            labelClasses.add(3, 3, 3, 3);
+            labelClasses.heapify(1, 3);
 
-            int sumPairsOfVertices = labelClasses.sumPairsOfVertices();
+            labelClasses.remove(1, 2);
 
-            assertThat(sumPairsOfVertices).isEqualTo(2);
+            assertThat(labelClasses.sizeG[1]).isZero();
+            assertThat(labelClasses.select(1)).isEqualTo(2);
+            assertThat(labelClasses.verticesOfG(2)).containsOnly(3, 4, 5);
         }
+    }
+
+    public static class LearnedBranchingTest {
 
         @Test
-        public void shouldSelectLabelClassWithSmallestMaxGH() {
-            LabelClass lb1 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(0, 1), Arrays.asList(0, 1, 2));
-            LabelClass lb2 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(2, 3), Arrays.asList());
-            LabelClasses labelClasses = new LabelClasses(Arrays.asList(lb1, lb2));
+        public void shouldSelectVertexFromGByDegreeWhenScoresAreEqual() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
 
-            LabelClass selected = labelClasses.select();
+            assertThat(new LearnedBranching(8, 8).selectVertexFromG(labelClasses, 0)).isEqualTo(1);
+        }
+
+        @Test
+        public void shouldSelectVertexFromGWithLargestScore() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            LearnedBranching branching = new LearnedBranching(8, 8);
+            branching.branched(5, 0, 3);
 
-            assertThat(selected).isEqualTo(lb1);
+            assertThat(branching.selectVertexFromG(labelClasses, 0)).isEqualTo(5);
         }
 
         @Test
-        public void shouldSelectLabelClassWithVertexInGWithHighestDegree() {
-            LabelClass lb1 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(0, 2), Arrays.asList(0, 1, 2));
-            LabelClass lb2 = new LabelClass(CASE1.g1, CASE1.g2, Arrays.asList(1, 3, 5), Arrays.asList());
-            LabelClasses labelClasses = new LabelClasses(Arrays.asList(lb1, lb2));
+        public void shouldMoveUntriedVerticesFromHByDescendingScore() {
+            LabelClasses labelClasses = LabelClasses.from(CASE2.g1, CASE2.g2);
+            labelClasses.sizeH[0]--;
+            LearnedBranching branching = new LearnedBranching(3, 3);
+            branching.branched(0, 2, 2);
+            branching.branched(0, 1, 1);
+            long[] tried = new long[1];
+
+            int first = branching.moveNextVertexFromHToEnd(labelClasses, 0, -1, tried);
+            Bitsets.add(tried, first);
+            int second = branching.moveNextVertexFromHToEnd(labelClasses, 0, first, tried);
+            Bitsets.add(tried, second);
+            int third = branching.moveNextVertexFromHToEnd(labelClasses, 0, second, tried);
+
+            assertThat(newArrayList(first, second, third)).containsExactly(2, 1, 0);
+        }
 
-            LabelClass selected = labelClasses.select();
+        @Test
+        public void shouldCopyScores() {
+            LabelClasses labelClasses = LabelClasses.from(CASE1.g1, CASE1.g2);
+            LearnedBranching branching = new LearnedBranching(8, 8);
+            branching.branched(5, 0, 3);
+            BranchingStrategy copy = branching.copy();
+            branching.branched(7, 0, 5);
 
-            assertThat(selected).isEqualTo(lb2);
+            assertThat(copy.selectVertexFromG(labelClasses, 0)).isEqualTo(5);
+            assertThat(branching.selectVertexFromG(labelClasses, 0)).isEqualTo(7);
         }
     }
 }
@@ -12,19 +12,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.google.common.collect.ImmutableListMultimap;
 
 import anc.models.GeneticConfiguration;
+import anc.models.McSplitConfiguration;
 import anc.models.MinimumCommonSupergraph;
 import anc.models.Pair;
 
-import org.junit.Before;
 import org.junit.Test;
 
 public class MinimumCommonSupergraphAlgorithmTest {
 
-  @Before
-  public void setup() {
-    Genetic.random.setSeed(Genetic.SEED);
-  }
-
   @Test
   public void shouldComputeMinimumCommonSuperGraphForCase1() {
     MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(new McSplit());
@@ -73,14 +68,16 @@ public class MinimumCommonSupergraphAlgorithmTest {
     MinimumCommonSupergraph MCS = algo.compute(CASE2.g1, CASE2.g2);
 
     assertThat(MCS.adjacencyMatrix).isDeepEqualTo(createAdjacencyMatrix(4, new ImmutableListMultimap.Builder<Integer, Integer>()
-      .putAll(0, 1, 3)
+      .putAll(0, 1, 2)
       .putAll(2, 3).build()));
-    assertThat(MCS.M).containsExactly(new Pair(0, 2), new Pair(1, null), new Pair(null, 0), new Pair(null, 1));
+    assertThat(MCS.M).containsExactly(new Pair(0, 0), new Pair(1, null), new Pair(null, 1), new Pair(null, 2));
   }
 
   @Test
   public void shouldComputeMinimumCommonSuperGraphForCase4() {
-    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(new McSplit());
+    // Dense enough to be searched as complements by default, which finds another supergraph of the same size
+    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(
+        new McSplit(McSplitConfiguration.defaults().withComplementDensity(1)));
 
     MinimumCommonSupergraph MCS = algo.compute(CASE4.g1, CASE4.g2);
 
@@ -102,7 +99,9 @@ public class MinimumCommonSupergraphAlgorithmTest {
 
   @Test
   public void shouldComputeMinimumCommonSuperGraphForCase5() {
-    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(new McSplit());
+    // Dense enough to be searched as complements by default, which finds another supergraph of the same size
+    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(
+        new McSplit(McSplitConfiguration.defaults().withComplementDensity(1)));
 
     MinimumCommonSupergraph MCS = algo.compute(CASE5.g1, CASE5.g2);
 
@@ -110,6 +109,27 @@ public class MinimumCommonSupergraphAlgorithmTest {
     assertThat(MCS.M).containsExactly(new Pair(0, 0), new Pair(1, 1), new Pair(2, 2), new Pair(3, null));
   }
 
+  @Test
+  public void shouldComputeMinimumCommonSuperGraphOfTheSameSizeForComplementsOfDenseGraphs() {
+    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(new McSplit());
+
+    MinimumCommonSupergraph MCS = algo.compute(CASE5.g1, CASE5.g2);
+
+    assertThat(MCS.adjacencyMatrix).isDeepEqualTo(SUPERGRAPH_CASE5);
+    assertThat(MCS.M).hasSize(4);
+  }
+
+  @Test
+  public void shouldComputeCommonSuperGraphAroundConnectedCommonSubgraph() {
+    MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(
+        new McSplit(McSplitConfiguration.defaults().withConnected(true)));
+
+    MinimumCommonSupergraph MCS = algo.compute(CASE1.g1, CASE1.g2);
+
+    McSplitTest.assertConnected(MCS.mcs);
+    assertThat(MCS.M).hasSize(CASE1.g1.n + CASE1.g2.n - MCS.mcs.M.size());
+  }
+
   @Test
   public void shouldComputeMinimumCommonSuperGraphApproximationForCase5() {
     MinimumCommonSupergraphAlgorithm algo = new MinimumCommonSupergraphAlgorithm(Genetic.fromConfiguration(GeneticConfiguration.fromPaper()));
@@ -120,6 +140,6 @@ public class MinimumCommonSupergraphAlgorithmTest {
       .putAll(0, 1, 2, 3)
       .putAll(1, 2, 3, 4)
       .putAll(3, 4).build()));
-    assertThat(MCS.M).containsExactly(new Pair(0, 3), new Pair(2, 1), new Pair(1, null), new Pair(null, 0), new Pair(null, 2));
+    assertThat(MCS.M).containsExactly(new Pair(0, 1), new Pair(1, 3), new Pair(2, null), new Pair(null, 0), new Pair(null, 2));
   }
 }
@@ -0,0 +1,64 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import anc.models.Graph;
+
+public class OrbitsTest {
+
+    @Test
+    public void shouldFindOrbitsOfPath() {
+        Graph path = new Graph(4, new int[][] { { 0, 1, 0, 0 }, { 1, 0, 1, 0 }, { 0, 1, 0, 1 }, { 0, 0, 1, 0 } });
+
+        assertThat(Orbits.of(path).orbit).containsExactly(0, 1, 1, 0);
+    }
+
+    @Test
+    public void shouldFindSingleOrbitOfCycle() {
+        int n = 6;
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            M[i][(i + 1) % n] = 1;
+            M[(i + 1) % n][i] = 1;
+        }
+
+        assertThat(Orbits.of(new Graph(n, M)).orbit).containsOnly(0);
+    }
+
+    @Test
+    public void shouldNotMergeVerticesOfRegularGraphWithoutSymmetries() {
+        // Frucht graph is 3-regular, so colour refinement cannot split it, but its only automorphism is identity
+        int n = 12;
+        int[] lcf = new int[] { -5, -2, -4, 2, 5, -2, 2, 5, -2, -5, 4, 2 };
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            int chord = (i + lcf[i] + n) % n;
+            M[i][next] = M[next][i] = 1;
+            M[i][chord] = M[chord][i] = 1;
+        }
+
+        assertThat(Orbits.of(new Graph(n, M)).orbit).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+    }
+
+    @Test
+    public void shouldPutOnlySymmetricVerticesInOneOrbit() {
+        int[] orbit = Orbits.of(CASE1.g1).orbit;
+
+        for (int u = 0; u < CASE1.g1.n; u++) {
+            for (int w = 0; w < CASE1.g1.n; w++) {
+                if (orbit[u] == orbit[w]) {
+                    assertThat(CASE1.g1.degreeOf(u)).isEqualTo(CASE1.g1.degreeOf(w));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepEveryVertexInItsOwnTrivialOrbit() {
+        assertThat(Orbits.trivial(3).orbit).containsExactly(0, 1, 2);
+    }
+}
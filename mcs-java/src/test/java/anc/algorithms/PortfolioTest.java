@@ -0,0 +1,108 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import anc.TestData.TestCase;
+import anc.models.GeneticConfiguration;
+import anc.models.Graph;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+
+public class PortfolioTest {
+
+    @Test
+    public void shouldComputeMaximumCommonSubgraphOfTheSameSizeAsMcSplit() {
+        Portfolio portfolio = Portfolio.fromConfiguration(GeneticConfiguration.fromPaper(),
+                McSplitConfiguration.defaults());
+
+        for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+            MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+            MaximumCommonSubgraph mcs = portfolio.compute(testCase.g1, testCase.g2);
+
+            assertThat(mcs.M).hasSameSizeAs(expected.M);
+            assertThat(mcs.isOptimal()).isTrue();
+            assertInducedCommonSubgraph(mcs);
+        }
+    }
+
+    @Test
+    public void shouldReturnBestSubgraphFoundWhenTimeLimitPasses() {
+        Random random = new Random(0);
+        Graph g1 = randomGraph(random, 60);
+        Graph g2 = randomGraph(random, 60);
+        Portfolio portfolio = new Portfolio(100,
+                newArrayList(new McSplit(), new AssociationGraphClique(), new DownSearch()));
+
+        long start = System.currentTimeMillis();
+        MaximumCommonSubgraph mcs = portfolio.compute(g1, g2);
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(10_000);
+        assertThat(mcs.isOptimal()).isFalse();
+        assertThat(mcs.M).isNotEmpty();
+        assertThat(mcs.upperBound).isLessThanOrEqualTo(60);
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldReturnWithinTimeLimitForBigGraphs() {
+        Random random = new Random(0);
+        Graph g1 = randomGraph(random, 100);
+        Graph g2 = randomGraph(random, 100);
+        Portfolio portfolio = Portfolio.fromConfiguration(null, McSplitConfiguration.defaults().withTimeLimit(1000));
+
+        long start = System.currentTimeMillis();
+        MaximumCommonSubgraph mcs = portfolio.compute(g1, g2);
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(1000 + 2 * Portfolio.STOP_MILLIS);
+        assertThat(mcs.M).isNotEmpty();
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldKeepResultOfHeuristicAlgorithm() {
+        Portfolio portfolio = new Portfolio(0, newArrayList(new Genetic(16, 16, 4, 4, 0.9, 0.5)));
+
+        MaximumCommonSubgraph mcs = portfolio.compute(CASE1.g1, CASE1.g2);
+
+        assertThat(mcs.M).isNotEmpty();
+        assertInducedCommonSubgraph(mcs);
+    }
+
+    @Test
+    public void shouldStopDecidingSizesAtSizeOfSharedIncumbent() {
+        Incumbent incumbent = new Incumbent(0, 8);
+        incumbent.offer(new McSplit().compute(CASE1.g1, CASE1.g2).M);
+
+        int upperBound = new DownSearch().search(CASE1.g1, CASE1.g2, incumbent, Budget.unlimited());
+
+        assertThat(upperBound).isEqualTo(6);
+        assertThat(incumbent.size()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldNotSearchConnectedCommonSubgraphs() {
+        assertThatThrownBy(() -> Portfolio.fromConfiguration(null,
+                McSplitConfiguration.defaults().withConnected(true))).isInstanceOf(RuntimeException.class);
+    }
+
+    private static Graph randomGraph(Random random, int n) {
+        int[][] M = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                M[i][j] = M[j][i] = random.nextBoolean() ? 1 : 0;
+            }
+        }
+        return new Graph(n, M);
+    }
+}
@@ -0,0 +1,120 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import anc.TestData.TestCase;
+import anc.algorithms.SearchListener.Prune;
+import anc.algorithms.SearchStatistics.Improvement;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.McSplitConfiguration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class SearchStatisticsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldCountNodesOfMcSplit() {
+        for (TestCase testCase : newArrayList(CASE1, CASE3, CASE4)) {
+            for (McSplitConfiguration configuration : newArrayList(McSplitConfiguration.defaults(),
+                    McSplitConfiguration.defaults().withThreads(3),
+                    McSplitConfiguration.defaults().withConnected(true))) {
+                MaximumCommonSubgraph expected = new McSplit(configuration).compute(testCase.g1, testCase.g2);
+                SearchStatistics statistics = new SearchStatistics();
+
+                MaximumCommonSubgraph mcs = new McSplit(configuration).compute(testCase.g1, testCase.g2,
+                        statistics);
+
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertThat(statistics.nodes()).isPositive();
+                long nodesOfDepths = 0;
+                for (int depth = 0; depth <= statistics.maxDepth(); depth++) {
+                    nodesOfDepths += statistics.nodesAtDepth(depth);
+                }
+                assertThat(nodesOfDepths).isEqualTo(statistics.nodes());
+                assertThat(statistics.maxDepth()).isBetween(mcs.M.size() - 1, mcs.M.size());
+                assertThat(statistics.meanLabelClassesAtDepth(0)).isPositive();
+                assertThat(statistics.size()).isEqualTo(mcs.M.size());
+                assertThat(statistics.upperBound()).isEqualTo(mcs.upperBound);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRecordImprovementsInOrder() {
+        SearchStatistics statistics = new SearchStatistics();
+
+        MaximumCommonSubgraph mcs = new McSplit().compute(CASE4.g1, CASE4.g2, statistics);
+
+        List<Integer> sizes = statistics.improvements().stream().map(i -> i.size).collect(Collectors.toList());
+        assertThat(sizes).isSorted().doesNotHaveDuplicates().endsWith(mcs.M.size());
+        assertThat(statistics.improvements()).extracting(i -> i.millis).isSorted();
+        assertThat(statistics.pruned(Prune.BOUND)).isPositive();
+        assertThat(statistics.pruned(Prune.NOGOOD)).isZero();
+    }
+
+    @Test
+    public void shouldReportOnlyResultOfAlgorithmWithoutHooks() {
+        SearchStatistics statistics = new SearchStatistics();
+
+        MaximumCommonSubgraph mcs = new AssociationGraphClique().compute(CASE4.g1, CASE4.g2, statistics);
+
+        assertThat(statistics.nodes()).isZero();
+        assertThat(statistics.maxDepth()).isEqualTo(-1);
+        assertThat(statistics.improvements()).extracting(i -> i.size).containsExactly(mcs.M.size());
+    }
+
+    @Test
+    public void shouldExportJson() {
+        SearchStatistics statistics = new SearchStatistics();
+        new McSplit().compute(CASE4.g1, CASE4.g2, statistics);
+
+        String json = statistics.toJson();
+
+        assertThat(json).startsWith("{\"size\":" + statistics.size() + ",").endsWith("}")
+                .contains("\"nodes\":" + statistics.nodes() + ",")
+                .contains("\"pruned\":{\"bound\":" + statistics.pruned(Prune.BOUND) + ",\"disconnected\":0,")
+                .contains("{\"depth\":0,\"nodes\":" + statistics.nodesAtDepth(0) + ",");
+        Improvement last = statistics.improvements().get(statistics.improvements().size() - 1);
+        assertThat(json).contains("{\"size\":" + last.size + ",\"millis\":");
+    }
+
+    @Test
+    public void shouldRecordJfrEvents() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("search.jfr");
+        JfrSearchListener listener = new JfrSearchListener();
+        try (Recording recording = new Recording()) {
+            recording.enable("anc.McsSearch");
+            recording.enable("anc.McsIncumbent");
+            recording.start();
+            new McSplit().compute(CASE4.g1, CASE4.g2, listener);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> searches = events.stream().filter(e -> e.getEventType().getName().equals("anc.McsSearch"))
+                .collect(Collectors.toList());
+        assertThat(searches).hasSize(1);
+        assertThat(searches.get(0).getLong("nodes")).isEqualTo(listener.nodes());
+        assertThat(searches.get(0).getInt("size")).isEqualTo(listener.size());
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("anc.McsIncumbent"))
+                .hasSameSizeAs(listener.improvements());
+    }
+}
@@ -0,0 +1,45 @@
+package anc.algorithms;
+
+import static anc.TestData.CASE1;
+import static anc.TestData.CASE2;
+import static anc.TestData.CASE3;
+import static anc.TestData.CASE4;
+import static anc.algorithms.McSplitTest.assertInducedCommonSubgraph;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import anc.TestData.TestCase;
+import anc.models.MaximumCommonSubgraph;
+import anc.models.VertexOrdering;
+
+public class VertexOrderingAlgorithmTest {
+
+    @Test
+    public void shouldMapMaximumCommonSubgraphBackToOriginalVertices() {
+        for (VertexOrdering vertexOrdering : VertexOrdering.values()) {
+            VertexOrderingAlgorithm algorithm = new VertexOrderingAlgorithm(new McSplit(), vertexOrdering);
+
+            for (TestCase testCase : newArrayList(CASE1, CASE2, CASE3, CASE4)) {
+                MaximumCommonSubgraph expected = new McSplit().compute(testCase.g1, testCase.g2);
+                MaximumCommonSubgraph mcs = algorithm.compute(testCase.g1, testCase.g2);
+
+                assertThat(mcs.g1).isSameAs(testCase.g1);
+                assertThat(mcs.M).hasSameSizeAs(expected.M);
+                assertThat(mcs.isOptimal()).isTrue();
+                assertInducedCommonSubgraph(mcs);
+            }
+        }
+    }
+
+    @Test
+    public void shouldMapGenomeBackToOriginalVertices() {
+        // Vertex i of relabelled g1 is order1[i], vertex j of relabelled g2 is order2[j]
+        int[] order1 = new int[] { 1, 0 };
+        int[] order2 = new int[] { 2, 0, 1 };
+
+        assertThat(VertexOrderingAlgorithm.mapGenomeBack(newArrayList(0, 2, 1), order1, order2))
+                .containsExactly(1, 2, 0);
+    }
+}
@@ -0,0 +1,107 @@
+package anc.models;
+
+import static anc.TestData.CASE1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class GraphTest {
+    /** Triangle 0, 1, 2 with vertex 3 attached to 2 */
+    private static final Graph TRIANGLE_WITH_TAIL = new Graph(4,
+            new int[][] { { 0, 1, 1, 0 }, { 1, 0, 1, 0 }, { 1, 1, 0, 1 }, { 0, 0, 1, 0 } });
+
+    @Test
+    public void shouldComputeDegrees() {
+        assertThat(TRIANGLE_WITH_TAIL.degrees).containsExactly(2, 2, 3, 1);
+        assertThat(TRIANGLE_WITH_TAIL.degreeOf(2)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldOrderVerticesByDescendingDegree() {
+        assertThat(TRIANGLE_WITH_TAIL.degreeOrder()).containsExactly(2, 0, 1, 3);
+    }
+
+    @Test
+    public void shouldOrderVerticesByReverseDegeneracy() {
+        assertThat(TRIANGLE_WITH_TAIL.degeneracyOrder()).containsExactly(2, 1, 0, 3);
+    }
+
+    @Test
+    public void shouldRelabelVertices() {
+        int[] order = CASE1.g1.degreeOrder();
+
+        Graph relabelled = CASE1.g1.relabel(order);
+
+        for (int i = 0; i < relabelled.n; i++) {
+            assertThat(relabelled.degreeOf(i)).isEqualTo(CASE1.g1.degreeOf(order[i]));
+            for (int j = 0; j < relabelled.n; j++) {
+                assertThat(relabelled.M[i][j]).isEqualTo(CASE1.g1.M[order[i]][order[j]]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldValidateConnectedGraph() {
+        TRIANGLE_WITH_TAIL.validate();
+        CASE1.g1.validate();
+    }
+
+    @Test
+    public void shouldRejectDisconnectedGraph() {
+        Graph graph = new Graph(4, new int[][] { { 0, 1, 0, 0 }, { 1, 0, 0, 0 }, { 0, 0, 0, 1 }, { 0, 0, 1, 0 } });
+
+        assertThatThrownBy(graph::validate).hasMessage("Graph must be connected!");
+    }
+
+    @Test
+    public void shouldComputeDensity() {
+        assertThat(TRIANGLE_WITH_TAIL.density()).isEqualTo(4.0 / 6);
+    }
+
+    @Test
+    public void shouldComputeComplement() {
+        Graph complement = TRIANGLE_WITH_TAIL.complement();
+
+        assertThat(complement.M).isDeepEqualTo(
+                new int[][] { { 0, 0, 0, 1 }, { 0, 0, 0, 1 }, { 0, 0, 0, 0 }, { 1, 1, 0, 0 } });
+        assertThat(complement.degrees).containsExactly(1, 1, 0, 2);
+    }
+
+    @Test
+    public void shouldKeepLabelsWhenRelabellingVertices() {
+        Graph graph = Graph.labelled(3, new int[] { 7, 8, 9 }, new int[][] { { 0, 2, 0 }, { 2, 0, 3 }, { 0, 3, 0 } });
+
+        Graph relabelled = graph.relabel(new int[] { 2, 0, 1 });
+
+        assertThat(relabelled.vertexLabels).containsExactly(9, 7, 8);
+        assertThat(relabelled.edgeLabels).isDeepEqualTo(new int[][] { { 0, 0, 3 }, { 0, 0, 2 }, { 3, 2, 0 } });
+        assertThat(relabelled.M).isDeepEqualTo(new int[][] { { 0, 0, 1 }, { 0, 0, 1 }, { 1, 1, 0 } });
+        assertThat(relabelled.hasEdgeLabels()).isTrue();
+    }
+
+    @Test
+    public void shouldKeepVertexLabelsOfComplement() {
+        Graph graph = new Graph(4, TRIANGLE_WITH_TAIL.M, new int[] { 1, 2, 3, 4 }, TRIANGLE_WITH_TAIL.M);
+
+        Graph complement = graph.complement();
+
+        assertThat(complement.vertexLabels).containsExactly(1, 2, 3, 4);
+        assertThat(complement.edgeLabels).isDeepEqualTo(complement.M);
+        assertThat(complement.isLabelled()).isTrue();
+        assertThat(complement.hasEdgeLabels()).isFalse();
+    }
+
+    @Test
+    public void shouldNotBeLabelledByDefault() {
+        assertThat(TRIANGLE_WITH_TAIL.isLabelled()).isFalse();
+        assertThat(TRIANGLE_WITH_TAIL.vertexLabels).containsOnly(0);
+    }
+
+    @Test
+    public void shouldRejectAsymmetricEdgeLabels() {
+        Graph graph = Graph.labelled(2, new int[2], new int[][] { { 0, 1 }, { 2, 0 } });
+
+        assertThatThrownBy(graph::validate).hasMessageStartingWith("Edge labels must be symmetric");
+    }
+}
@@ -27,4 +27,18 @@ public class MaximumCommonSubgraphTest {
 
         assertThat(actual).containsOnly(3, 5);
     }
+
+    @Test
+    public void shouldBeOptimalWhenSizeReachesUpperBound() {
+        MaximumCommonSubgraph mcs = new MaximumCommonSubgraph(newArrayList(new Pair(0, 1), new Pair(1, 2)), CASE4.g1, CASE4.g2, 2);
+
+        assertThat(mcs.isOptimal()).isTrue();
+    }
+
+    @Test
+    public void shouldNotBeOptimalWhenUpperBoundIsBigger() {
+        MaximumCommonSubgraph mcs = new MaximumCommonSubgraph(newArrayList(new Pair(0, 1), new Pair(1, 2)), CASE4.g1, CASE4.g2, 4);
+
+        assertThat(mcs.isOptimal()).isFalse();
+    }
 }
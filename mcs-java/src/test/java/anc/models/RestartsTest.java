@@ -0,0 +1,34 @@
+package anc.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class RestartsTest {
+
+    @Test
+    public void shouldFollowLubySequence() {
+        long[] sequence = IntStream.rangeClosed(1, 15).mapToLong(Restarts::luby).toArray();
+
+        assertThat(sequence).containsExactly(1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8);
+    }
+
+    @Test
+    public void shouldScaleLubySequenceByUnit() {
+        assertThat(Restarts.LUBY.nodeLimitOfRun(0)).isEqualTo(Restarts.UNIT_NODES);
+        assertThat(Restarts.LUBY.nodeLimitOfRun(6)).isEqualTo(4 * Restarts.UNIT_NODES);
+    }
+
+    @Test
+    public void shouldGrowGeometrically() {
+        assertThat(Restarts.GEOMETRIC.nodeLimitOfRun(0)).isEqualTo(Restarts.UNIT_NODES);
+        assertThat(Restarts.GEOMETRIC.nodeLimitOfRun(2)).isEqualTo((long) (Restarts.UNIT_NODES * 2.25));
+    }
+
+    @Test
+    public void shouldNotLimitSingleRun() {
+        assertThat(Restarts.NONE.nodeLimitOfRun(0)).isZero();
+    }
+}
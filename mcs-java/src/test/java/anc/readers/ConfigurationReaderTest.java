@@ -0,0 +1,80 @@
+package anc.readers;
+
+import static anc.TestData.CASE1;
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import anc.algorithms.McSplit;
+import anc.models.Configuration;
+import anc.models.MaximumCommonSubgraph;
+
+public class ConfigurationReaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldResumeInterruptedSearchFromCheckpointGivenInPrompts() throws Exception {
+        String path = new File(folder.getRoot(), "mcs.checkpoint").getPath();
+        MaximumCommonSubgraph expected = new McSplit().compute(CASE1.g1, CASE1.g2);
+
+        Configuration interrupted = read(mcSplitAnswers(20, path, false));
+        MaximumCommonSubgraph first = McSplit.fromConfiguration(interrupted.mcSplitConfiguration).compute(CASE1.g1,
+                CASE1.g2);
+        Configuration resumed = read(mcSplitAnswers(0, path, true));
+        MaximumCommonSubgraph second = McSplit.fromConfiguration(resumed.mcSplitConfiguration).compute(CASE1.g1,
+                CASE1.g2);
+
+        assertThat(interrupted.mcSplitConfiguration.checkpointPath).isEqualTo(path);
+        assertThat(interrupted.mcSplitConfiguration.resume).isFalse();
+        assertThat(resumed.mcSplitConfiguration.resume).isTrue();
+        assertThat(first.isOptimal()).isFalse();
+        assertThat(new File(path)).exists();
+        assertThat(second.isOptimal()).isTrue();
+        assertThat(second.M).hasSameSizeAs(expected.M);
+    }
+
+    @Test
+    public void shouldNotCheckpointWithoutPath() {
+        Configuration configuration = read(mcSplitAnswers(0, "", false));
+
+        assertThat(configuration.mcSplitConfiguration.checkpointPath).isNull();
+        assertThat(configuration.inputFilePath).isEqualTo("input.txt");
+    }
+
+    @Test
+    public void shouldReadSeedBiggerThanInteger() {
+        Configuration configuration = read(String.join("\n", "1", "2", "y", "256", "512", "32", "4", "0.9", "0.5",
+                "5000000000", "1", "input.txt"));
+
+        assertThat(configuration.geneticConfiguration.seed).isEqualTo(5_000_000_000L);
+    }
+
+    private static Configuration read(String answers) {
+        return ConfigurationReader.read(new Scanner(answers));
+    }
+
+    /**
+     * Answers configuring a single threaded Mc Split with the node limit and
+     * checkpoint file given, empty for no checkpoints, which are saved after
+     * every node
+     */
+    private static String mcSplitAnswers(int nodeLimit, String checkpointPath, boolean resume) {
+        List<String> answers = newArrayList("1", "1", "y", "1", "0", String.valueOf(nodeLimit), "n", "n", "1", "1",
+                "1", checkpointPath);
+        if (checkpointPath.isEmpty()) {
+            answers.add("0");
+        } else {
+            answers.addAll(newArrayList("0", resume ? "y" : "n"));
+        }
+        answers.addAll(newArrayList("1", "input.txt"));
+        return String.join("\n", answers);
+    }
+}